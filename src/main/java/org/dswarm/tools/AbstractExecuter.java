@@ -24,8 +24,11 @@ import javaslang.Tuple2;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.dswarm.tools.apiclients.AbstractAPIClient;
+import org.dswarm.tools.utils.RxUtils;
+
 /**
- * Abstract executer - includes methods for parsing the arguments and printing the help.
+ * Abstract executer - includes methods for parsing the arguments, printing the help and exiting after a successful execution.
  *
  * @author tgaengler
  */
@@ -71,4 +74,16 @@ public abstract class AbstractExecuter {
 
 		return Tuple.of(split[0], split[1]);
 	}
+
+	/**
+	 * releases the (shared) HTTP client (i.e. its connection pool statistics are logged) and the thread pools, before the JVM is
+	 * terminated (System.exit skips the finally blocks of the executers)
+	 */
+	protected static void shutdownAndExit() {
+
+		AbstractAPIClient.shutdown();
+		RxUtils.shutdown();
+
+		System.exit(0);
+	}
 }
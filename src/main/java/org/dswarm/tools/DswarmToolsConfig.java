@@ -0,0 +1,412 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.tools.apiclients.HttpConnector;
+import org.dswarm.tools.utils.Compression;
+import org.dswarm.tools.utils.ExportFormat;
+import org.dswarm.tools.utils.ImportOrder;
+
+/**
+ * Configuration of a tool execution - values are taken from the commandline arguments first and from the 'dswarm.properties'
+ * (key = parameter name without leading '-') second. If neither of them contains a value, the given default value will be utilised.
+ *
+ * @author tgaengler
+ */
+public final class DswarmToolsConfig {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DswarmToolsConfig.class);
+
+	private static final String PROPERTIES_FILE_NAME = "dswarm.properties";
+	private static final String PARAMETER_PREFIX = "-";
+
+	private static final Properties PROPERTIES = loadProperties();
+
+	private static final boolean DEFAULT_STREAMING_EXPORT = true;
+	private static final int DEFAULT_EXPORT_PAGE_SIZE = 0;
+	private static final int DEFAULT_RETRIEVAL_CONCURRENCY = 8;
+	private static final int DEFAULT_CONTENT_RETRIEVAL_CONCURRENCY = 4;
+	private static final int DEFAULT_WRITING_CONCURRENCY = 4;
+	private static final int DEFAULT_IMPORT_CONCURRENCY = 1;
+	private static final int DEFAULT_UPLOAD_CHUNK_SIZE = 1024 * 1024;
+	private static final int DEFAULT_IMPORT_BATCH_SIZE = 0;
+	private static final int DEFAULT_IMPORT_BATCH_CONCURRENCY = 2;
+	private static final int DEFAULT_IMPORT_BATCH_RETRIES = 3;
+	private static final boolean DEFAULT_RESUME = false;
+	private static final int DEFAULT_MAX_OPEN_FILES = 32;
+	private static final ImportOrder DEFAULT_IMPORT_ORDER = ImportOrder.LARGEST_FIRST;
+	private static final boolean DEFAULT_ADAPTIVE_CONCURRENCY = false;
+	private static final int DEFAULT_STAGE_BUFFER_SIZE = 16;
+	private static final HttpConnector DEFAULT_HTTP_CONNECTOR = HttpConnector.URL_CONNECTION;
+	private static final int DEFAULT_SOCKET_BUFFER_SIZE = 0;
+	private static final Compression DEFAULT_EXPORT_COMPRESSION = Compression.NONE;
+	private static final ExportFormat DEFAULT_EXPORT_FORMAT = ExportFormat.JSON;
+	private static final boolean DEFAULT_INCREMENTAL_EXPORT = false;
+	private static final boolean DEFAULT_PACKED_EXPORT = false;
+	private static final int DEFAULT_PACKED_EXPORT_SEGMENT_SIZE = 1024 * 1024 * 1024;
+
+	private final Map<String, String> argMap;
+
+	public DswarmToolsConfig(final Map<String, String> argMapArg) {
+
+		argMap = argMapArg;
+	}
+
+	/**
+	 * @return true, if the exported content should be streamed from the HTTP response straight into the export file (i.e. without
+	 * holding the complete content in memory)
+	 */
+	public boolean isStreamingExport() {
+
+		return getBoolean(DswarmToolsStatics.STREAMING_EXPORT_PARAMETER, DEFAULT_STREAMING_EXPORT);
+	}
+
+	/**
+	 * @return the maximum number of records per data model content retrieval request, i.e., the content of a data model is retrieved
+	 * page by page (0 = no paging, i.e., the content of a data model is retrieved with one request)
+	 */
+	public int getExportPageSize() {
+
+		return Math.max(0, getInt(DswarmToolsStatics.EXPORT_PAGE_SIZE_PARAMETER, DEFAULT_EXPORT_PAGE_SIZE));
+	}
+
+	/**
+	 * @return the maximum number of parallel requests for retrieving full object descriptions (e.g. projects) from the d:swarm backend
+	 */
+	public int getRetrievalConcurrency() {
+
+		return getPositiveInt(DswarmToolsStatics.RETRIEVAL_CONCURRENCY_PARAMETER, DEFAULT_RETRIEVAL_CONCURRENCY);
+	}
+
+	/**
+	 * @return the maximum number of parallel requests for retrieving data models content from the d:swarm graph extension
+	 */
+	public int getContentRetrievalConcurrency() {
+
+		return getPositiveInt(DswarmToolsStatics.CONTENT_RETRIEVAL_CONCURRENCY_PARAMETER, DEFAULT_CONTENT_RETRIEVAL_CONCURRENCY);
+	}
+
+	/**
+	 * @return the maximum number of export files that are written in parallel
+	 */
+	public int getWritingConcurrency() {
+
+		return getPositiveInt(DswarmToolsStatics.WRITING_CONCURRENCY_PARAMETER, DEFAULT_WRITING_CONCURRENCY);
+	}
+
+	/**
+	 * @return the maximum number of parallel import requests (1 = strictly serial import in the order of the import files)
+	 */
+	public int getImportConcurrency() {
+
+		return getPositiveInt(DswarmToolsStatics.IMPORT_CONCURRENCY_PARAMETER, DEFAULT_IMPORT_CONCURRENCY);
+	}
+
+	/**
+	 * @return the size (in bytes) of the chunks that are read from the import files and sent to the d:swarm graph extension
+	 */
+	public int getUploadChunkSize() {
+
+		return getPositiveInt(DswarmToolsStatics.UPLOAD_CHUNK_SIZE_PARAMETER, DEFAULT_UPLOAD_CHUNK_SIZE);
+	}
+
+	/**
+	 * @return the maximum number of records per upload request of a data model content import (0 = no batching, i.e., the content of
+	 * a data model is uploaded with one request)
+	 */
+	public int getImportBatchSize() {
+
+		return Math.max(0, getInt(DswarmToolsStatics.IMPORT_BATCH_SIZE_PARAMETER, DEFAULT_IMPORT_BATCH_SIZE));
+	}
+
+	/**
+	 * @return the maximum number of parallel record batch upload requests per data model
+	 */
+	public int getImportBatchConcurrency() {
+
+		return getPositiveInt(DswarmToolsStatics.IMPORT_BATCH_CONCURRENCY_PARAMETER, DEFAULT_IMPORT_BATCH_CONCURRENCY);
+	}
+
+	/**
+	 * @return the number of retries of a failed record batch upload request
+	 */
+	public int getImportBatchRetries() {
+
+		return Math.max(0, getInt(DswarmToolsStatics.IMPORT_BATCH_RETRIES_PARAMETER, DEFAULT_IMPORT_BATCH_RETRIES));
+	}
+
+	/**
+	 * @return true, if an aborted import should be resumed, i.e., the objects that are listed in the import journal of the import
+	 * directory are skipped
+	 */
+	public boolean isResume() {
+
+		return getBoolean(DswarmToolsStatics.RESUME_PARAMETER, DEFAULT_RESUME);
+	}
+
+	/**
+	 * @return the maximum number of import files that are open at once, i.e., the maximum number of parallel upload requests (each
+	 * upload request opens its file, when its request entity is written, and closes it afterwards)
+	 */
+	public int getMaxOpenFiles() {
+
+		return getPositiveInt(DswarmToolsStatics.MAX_OPEN_FILES_PARAMETER, DEFAULT_MAX_OPEN_FILES);
+	}
+
+	/**
+	 * @return the order in which the export files of the import directory are imported (e.g. largest first)
+	 */
+	public ImportOrder getImportOrder() {
+
+		return getEnum(DswarmToolsStatics.IMPORT_ORDER_PARAMETER, ImportOrder.class, DEFAULT_IMPORT_ORDER);
+	}
+
+	/**
+	 * @return true, if the number of parallel requests should be adapted to the utilised d:swarm instance (starting with one request),
+	 * i.e., the retrieval, content retrieval and import concurrency are upper bounds of the adaptive limits
+	 */
+	public boolean isAdaptiveConcurrency() {
+
+		return getBoolean(DswarmToolsStatics.ADAPTIVE_CONCURRENCY_PARAMETER, DEFAULT_ADAPTIVE_CONCURRENCY);
+	}
+
+	/**
+	 * @return the maximum number of items that are buffered between two pipeline stages that run on different thread pools (e.g.
+	 * between scanning the import directory and preparing the uploads), i.e., a stage requests the next items from its preceding stage
+	 * only, when its buffer has space
+	 */
+	public int getStageBufferSize() {
+
+		return getPositiveInt(DswarmToolsStatics.STAGE_BUFFER_SIZE_PARAMETER, DEFAULT_STAGE_BUFFER_SIZE);
+	}
+
+	/**
+	 * @return the HTTP connector (transport) of the Jersey client
+	 */
+	public HttpConnector getHttpConnector() {
+
+		return getEnum(DswarmToolsStatics.HTTP_CONNECTOR_PARAMETER, HttpConnector.class, DEFAULT_HTTP_CONNECTOR);
+	}
+
+	/**
+	 * @return the maximum number of (keep-alive) connections of the pooled or non-blocking HTTP connector, i.e., by default, the number of requests
+	 * that can be in flight at once (retrieval + content retrieval + import (batch) concurrency)
+	 */
+	public int getHttpPoolSize() {
+
+		final int importBatchConcurrency = getImportBatchSize() > 0 ? getImportBatchConcurrency() : 1;
+		final int defaultHttpPoolSize = getRetrievalConcurrency() + getContentRetrievalConcurrency() + getImportConcurrency() * importBatchConcurrency;
+
+		return getPositiveInt(DswarmToolsStatics.HTTP_POOL_SIZE_PARAMETER, defaultHttpPoolSize);
+	}
+
+	/**
+	 * @return the maximum number of (keep-alive) connections of the pooled or non-blocking HTTP connector to a single host (d:swarm backend or d:swarm
+	 * graph extension), by default, the pool size
+	 */
+	public int getHttpMaxConnectionsPerHost() {
+
+		return getPositiveInt(DswarmToolsStatics.HTTP_MAX_CONNECTIONS_PER_HOST_PARAMETER, getHttpPoolSize());
+	}
+
+	/**
+	 * @return the socket send buffer size (SO_SNDBUF; in bytes) of the connections of the pooled or non-blocking HTTP connector, 0 = OS default
+	 */
+	public int getSocketSendBufferSize() {
+
+		return getSocketBufferSize(DswarmToolsStatics.SOCKET_SEND_BUFFER_SIZE_PARAMETER);
+	}
+
+	/**
+	 * @return the socket receive buffer size (SO_RCVBUF; in bytes) of the connections of the pooled or non-blocking HTTP connector, 0 = OS default
+	 */
+	public int getSocketReceiveBufferSize() {
+
+		return getSocketBufferSize(DswarmToolsStatics.SOCKET_RECEIVE_BUFFER_SIZE_PARAMETER);
+	}
+
+	/**
+	 * @return the compression of the export files
+	 */
+	public Compression getExportCompression() {
+
+		return getEnum(DswarmToolsStatics.EXPORT_COMPRESSION_PARAMETER, Compression.class, DEFAULT_EXPORT_COMPRESSION);
+	}
+
+	/**
+	 * @return the format of the data models content export files
+	 */
+	public ExportFormat getExportFormat() {
+
+		return getEnum(DswarmToolsStatics.EXPORT_FORMAT_PARAMETER, ExportFormat.class, DEFAULT_EXPORT_FORMAT);
+	}
+
+	/**
+	 * @return true, if only new or changed objects should be (re-)written at export (with help of the export manifest of the last
+	 * export into the same directory)
+	 */
+	public boolean isIncrementalExport() {
+
+		return getBoolean(DswarmToolsStatics.INCREMENTAL_EXPORT_PARAMETER, DEFAULT_INCREMENTAL_EXPORT);
+	}
+
+	/**
+	 * @return the directory of the content-addressed export store, if the export directory should be a snapshot of hard links into
+	 * this store (instead of a directory of full copies)
+	 */
+	public Optional<String> getExportStoreDirectoryName() {
+
+		return Optional.ofNullable(getString(DswarmToolsStatics.EXPORT_STORE_DIRECTORY_NAME_PARAMETER, null));
+	}
+
+	/**
+	 * @return true, if the export files should be appended to the segments of a packed archive (instead of being written as separate
+	 * files)
+	 */
+	public boolean isPackedExport() {
+
+		return getBoolean(DswarmToolsStatics.PACKED_EXPORT_PARAMETER, DEFAULT_PACKED_EXPORT);
+	}
+
+	/**
+	 * @return the maximum size (in bytes) of a segment of a packed archive (a segment is memory-mapped as a whole at import, i.e., it
+	 * is limited to 2 GB)
+	 */
+	public int getPackedExportSegmentSize() {
+
+		return getPositiveInt(DswarmToolsStatics.PACKED_EXPORT_SEGMENT_SIZE_PARAMETER, DEFAULT_PACKED_EXPORT_SEGMENT_SIZE);
+	}
+
+	private int getSocketBufferSize(final String parameter) {
+
+		final int value = getInt(parameter, DEFAULT_SOCKET_BUFFER_SIZE);
+
+		if (value < 0) {
+
+			final String message = String.format("value '%s' of parameter '%s' should not be negative", value, parameter);
+
+			LOG.error(message);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message));
+		}
+
+		return value;
+	}
+
+	public String getString(final String parameter, final String defaultValue) {
+
+		final String argValue = argMap.get(parameter);
+
+		if (argValue != null) {
+
+			return argValue;
+		}
+
+		final String propertyKey = parameter.startsWith(PARAMETER_PREFIX) ? parameter.substring(PARAMETER_PREFIX.length()) : parameter;
+		final String propertyValue = PROPERTIES.getProperty(propertyKey);
+
+		if (propertyValue != null && !propertyValue.trim().isEmpty()) {
+
+			return propertyValue.trim();
+		}
+
+		return defaultValue;
+	}
+
+	public boolean getBoolean(final String parameter, final boolean defaultValue) {
+
+		return Boolean.parseBoolean(getString(parameter, String.valueOf(defaultValue)));
+	}
+
+	public int getInt(final String parameter, final int defaultValue) {
+
+		final String value = getString(parameter, String.valueOf(defaultValue));
+
+		try {
+
+			return Integer.parseInt(value);
+		} catch (final NumberFormatException e) {
+
+			final String message = String.format("value '%s' of parameter '%s' is not a number", value, parameter);
+
+			LOG.error(message);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+		}
+	}
+
+	public int getPositiveInt(final String parameter, final int defaultValue) {
+
+		final int value = getInt(parameter, defaultValue);
+
+		if (value < 1) {
+
+			final String message = String.format("value '%s' of parameter '%s' should be greater than 0", value, parameter);
+
+			LOG.error(message);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message));
+		}
+
+		return value;
+	}
+
+	public <E extends Enum<E>> E getEnum(final String parameter, final Class<E> enumClass, final E defaultValue) {
+
+		final String value = getString(parameter, defaultValue.name());
+
+		try {
+
+			return Enum.valueOf(enumClass, value.toUpperCase(Locale.ENGLISH).replace('-', '_'));
+		} catch (final IllegalArgumentException e) {
+
+			final String message = String.format("value '%s' of parameter '%s' is not one of %s", value, parameter, Arrays.toString(enumClass.getEnumConstants()).toLowerCase(Locale.ENGLISH));
+
+			LOG.error(message);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+		}
+	}
+
+	private static Properties loadProperties() {
+
+		final Properties properties = new Properties();
+
+		try (final InputStream propertiesStream = DswarmToolsConfig.class.getClassLoader().getResourceAsStream(PROPERTIES_FILE_NAME)) {
+
+			if (propertiesStream != null) {
+
+				properties.load(propertiesStream);
+			}
+		} catch (final IOException e) {
+
+			LOG.warn("couldn't load properties from '{}'", PROPERTIES_FILE_NAME, e);
+		}
+
+		return properties;
+	}
+}
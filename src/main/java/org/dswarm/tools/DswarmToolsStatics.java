@@ -28,6 +28,33 @@ public final class DswarmToolsStatics {
 	public static final String DSWARM_GRAPH_EXTENSION_API_BASE_URI_PARAMETER = "-dswarm-graph-extension-api";
 	public static final String EXPORT_DIRECTORY_NAME_PARAMETER = "-export-directory-name";
 	public static final String IMPORT_DIRECTORY_NAME_PARAMETER = "-import-directory-name";
+	public static final String STREAMING_EXPORT_PARAMETER = "-streaming-export";
+	public static final String EXPORT_PAGE_SIZE_PARAMETER = "-export-page-size";
+	public static final String RETRIEVAL_CONCURRENCY_PARAMETER = "-retrieval-concurrency";
+	public static final String CONTENT_RETRIEVAL_CONCURRENCY_PARAMETER = "-content-retrieval-concurrency";
+	public static final String WRITING_CONCURRENCY_PARAMETER = "-writing-concurrency";
+	public static final String IMPORT_CONCURRENCY_PARAMETER = "-import-concurrency";
+	public static final String UPLOAD_CHUNK_SIZE_PARAMETER = "-upload-chunk-size";
+	public static final String IMPORT_BATCH_SIZE_PARAMETER = "-import-batch-size";
+	public static final String IMPORT_BATCH_CONCURRENCY_PARAMETER = "-import-batch-concurrency";
+	public static final String IMPORT_BATCH_RETRIES_PARAMETER = "-import-batch-retries";
+	public static final String RESUME_PARAMETER = "-resume";
+	public static final String MAX_OPEN_FILES_PARAMETER = "-max-open-files";
+	public static final String IMPORT_ORDER_PARAMETER = "-import-order";
+	public static final String ADAPTIVE_CONCURRENCY_PARAMETER = "-adaptive-concurrency";
+	public static final String STAGE_BUFFER_SIZE_PARAMETER = "-stage-buffer-size";
+	public static final String HTTP_CONNECTOR_PARAMETER = "-http-connector";
+	public static final String HTTP_POOL_SIZE_PARAMETER = "-http-pool-size";
+	public static final String HTTP_MAX_CONNECTIONS_PER_HOST_PARAMETER = "-http-max-connections-per-host";
+	public static final String SOCKET_SEND_BUFFER_SIZE_PARAMETER = "-socket-send-buffer-size";
+	public static final String SOCKET_RECEIVE_BUFFER_SIZE_PARAMETER = "-socket-receive-buffer-size";
+	public static final String REQUEST_URI_PARAMETER = "-request-uri";
+	public static final String EXPORT_COMPRESSION_PARAMETER = "-export-compression";
+	public static final String EXPORT_FORMAT_PARAMETER = "-export-format";
+	public static final String INCREMENTAL_EXPORT_PARAMETER = "-incremental-export";
+	public static final String EXPORT_STORE_DIRECTORY_NAME_PARAMETER = "-export-store-directory-name";
+	public static final String PACKED_EXPORT_PARAMETER = "-packed-export";
+	public static final String PACKED_EXPORT_SEGMENT_SIZE_PARAMETER = "-packed-export-segment-size";
 	public static final String HELP_PARAMETER = "--help";
 
 	public static final String EQUALS = "=";
@@ -43,6 +70,8 @@ public final class DswarmToolsStatics {
 
 	public static final String DATA_MODEL_URI_IDENTIFIER = "data_model_uri";
 	public static final String RECORD_CLASS_URI_IDENTIFIER = "record_class_uri";
+	public static final String AT_MOST_IDENTIFIER = "at_most";
+	public static final String OFFSET_IDENTIFIER = "offset";
 	public static final String DEPRECATE_MISSING_RECORDS = "deprecate_missing_records";
 	public static final String ENABLE_VERSIONING = "enable_versioning";
 
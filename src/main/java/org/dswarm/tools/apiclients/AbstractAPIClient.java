@@ -15,25 +15,48 @@
  */
 package org.dswarm.tools.apiclients;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
 
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.io.ByteStreams;
+import com.ning.http.client.AsyncHttpClientConfig;
+import com.ning.http.client.providers.grizzly.GrizzlyAsyncHttpProviderConfig;
+import com.ning.http.client.providers.grizzly.TransportCustomizer;
 import javaslang.Tuple;
 import javaslang.Tuple2;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
 import org.glassfish.jersey.client.rx.RxWebTarget;
 import org.glassfish.jersey.client.rx.rxjava.RxObservable;
 import org.glassfish.jersey.client.rx.rxjava.RxObservableInvoker;
+import org.glassfish.jersey.grizzly.connector.GrizzlyConnectorProvider;
 import org.glassfish.jersey.logging.LoggingFeature;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
+import rx.Observable;
 import rx.Scheduler;
+import rx.Subscription;
+import rx.functions.Func1;
 
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.utils.DswarmToolUtils;
 import org.dswarm.tools.utils.RxUtils;
 
@@ -48,32 +71,115 @@ public abstract class AbstractAPIClient {
 
 	protected static final int CHUNK_SIZE = 1024;
 	private static final int REQUEST_TIMEOUT = 20000000;
+	private static final long POOL_STATS_LOGGING_INTERVAL = 10;
+	private static final int NON_BLOCKING_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * the (shared) Jersey client, i.e., it is created with the configuration of the first API client
+	 */
+	private static Client client;
 
-	private static final ClientBuilder BUILDER = ClientBuilder.newBuilder().register(MultiPartFeature.class)
-			.property(ClientProperties.CHUNKED_ENCODING_SIZE, CHUNK_SIZE)
-			.property(ClientProperties.REQUEST_ENTITY_PROCESSING, CHUNKED)
-			.property(ClientProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, CHUNK_SIZE)
-			.property(ClientProperties.CONNECT_TIMEOUT, REQUEST_TIMEOUT)
-			.property(ClientProperties.READ_TIMEOUT, REQUEST_TIMEOUT)
-			.property(LoggingFeature.LOGGING_FEATURE_VERBOSITY_CLIENT, LoggingFeature.Verbosity.HEADERS_ONLY)
-			.property(LoggingFeature.LOGGING_FEATURE_LOGGER_LEVEL_CLIENT, Level.INFO.toString());
+	/**
+	 * the connection pool of the (shared) Jersey client (pooled HTTP connector only)
+	 */
+	private static Optional<PoolingHttpClientConnectionManager> optionalConnectionManager = Optional.empty();
 
-	private static final Client CLIENT = BUILDER.register(LoggingFeature.class).build();
+	/**
+	 * the periodic logging of the connection pool statistics (pooled HTTP connector only)
+	 */
+	private static Optional<Subscription> optionalPoolStatsLogging = Optional.empty();
 
 	protected static final String SLASH = "/";
 
+	/**
+	 * HTTP I/O scheduler for handling the responses of export (retrieval) requests
+	 */
 	protected final Scheduler exportScheduler;
+
+	/**
+	 * HTTP I/O scheduler for handling the responses of import requests
+	 */
 	protected final Scheduler importScheduler;
+
+	/**
+	 * CPU scheduler for JSON work
+	 */
+	protected final Scheduler jsonScheduler;
 	protected final String objectName;
 	protected final String apiBaseURI;
+	protected final DswarmToolsConfig config;
 
-	public AbstractAPIClient(final String apiBaseURIArg, final String objectNameArg) {
+	public AbstractAPIClient(final String apiBaseURIArg, final String objectNameArg, final DswarmToolsConfig configArg) {
 
 		apiBaseURI = apiBaseURIArg;
 		objectName = objectNameArg;
+		config = configArg;
 
 		exportScheduler = RxUtils.getObjectExporterScheduler(objectName);
 		importScheduler = RxUtils.getObjectImporterScheduler(objectName);
+		jsonScheduler = RxUtils.getJsonScheduler();
+	}
+
+	/**
+	 * @param stage            the name of the processing stage (for logging)
+	 * @param maxConcurrency   the configured concurrency of the stage
+	 * @param latencySensitive true, if latency spikes should cut the limit
+	 * @return an adaptive concurrency limiter for the given stage or an empty optional, if adaptive concurrency is disabled
+	 */
+	protected Optional<AdaptiveConcurrencyLimiter> createConcurrencyLimiter(final String stage, final int maxConcurrency, final boolean latencySensitive) {
+
+		if (!config.isAdaptiveConcurrency()) {
+
+			return Optional.empty();
+		}
+
+		return Optional.of(new AdaptiveConcurrencyLimiter(String.format("%s %s", objectName, stage), maxConcurrency, latencySensitive));
+	}
+
+	/**
+	 * Executes the requests for the given inputs in parallel, i.e., with the given (fixed) concurrency or, if a limiter is given, with
+	 * the adaptive limit of this limiter.
+	 *
+	 * @param inputs      the request inputs
+	 * @param request     creates the request for an input
+	 * @param concurrency the (fixed) concurrency
+	 * @param limiter     the adaptive concurrency limiter (optional)
+	 * @param isOverload  true, if the given result signals an overload (e.g. 5xx response)
+	 * @return the results of the requests
+	 */
+	protected static <T, R> Observable<R> flatMapLimited(final Observable<T> inputs, final Func1<? super T, Observable<R>> request, final int concurrency,
+			final Optional<AdaptiveConcurrencyLimiter> limiter, final Func1<? super R, Boolean> isOverload) {
+
+		if (!limiter.isPresent()) {
+
+			return inputs.flatMap(request, concurrency);
+		}
+
+		// the requests beyond the current limit are deferred by the limiter
+		return inputs.flatMap(input -> limiter.get().limit(request.call(input), isOverload), limiter.get().getMaxLimit());
+	}
+
+	/**
+	 * closes the given response after consuming its (unread) entity, i.e., the connection can be re-used by the pooled or non-blocking
+	 * HTTP connector (closing a response with an unread entity closes its connection)
+	 *
+	 * @param response a response, whose entity wasn't read
+	 */
+	protected static void closeResponse(final Response response) {
+
+		try {
+
+			if (response.hasEntity()) {
+
+				ByteStreams.exhaust(response.readEntity(InputStream.class));
+			}
+		} catch (final IOException | ProcessingException e) {
+
+			LOG.debug("couldn't consume the entity of the response, i.e., its connection won't be re-used", e);
+		} finally {
+
+			response.close();
+		}
 	}
 
 	protected ObjectNode getObjectJSON(final String objectIdentifier, final String objectJSONString) {
@@ -99,14 +205,165 @@ public abstract class AbstractAPIClient {
 		return Tuple.of(objectIdentifier, objectJSONString);
 	}
 
-	private static Client client() {
+	/**
+	 * @return the statistics (leased, idle (available), waiting (pending) and max connections) of the connection pool of the (shared)
+	 * Jersey client or an empty optional, if the pooled HTTP connector isn't utilised
+	 */
+	public static synchronized Optional<PoolStats> getConnectionPoolStats() {
+
+		return optionalConnectionManager.map(PoolingHttpClientConnectionManager::getTotalStats);
+	}
+
+	/**
+	 * closes the (shared) Jersey client (incl. its connection pool), i.e., the next API client creates a new one
+	 */
+	public static synchronized void shutdown() {
+
+		if (client == null) {
+
+			return;
+		}
+
+		optionalPoolStatsLogging.ifPresent(Subscription::unsubscribe);
+		getConnectionPoolStats().ifPresent(poolStats -> logConnectionPoolStats(poolStats, "at shutdown"));
+
+		client.close();
+		optionalConnectionManager.ifPresent(PoolingHttpClientConnectionManager::shutdown);
+
+		client = null;
+		optionalConnectionManager = Optional.empty();
+		optionalPoolStatsLogging = Optional.empty();
+	}
+
+	private static synchronized Client client(final DswarmToolsConfig config) {
+
+		if (client == null) {
+
+			client = createClient(config);
+		}
+
+		return client;
+	}
+
+	private static Client createClient(final DswarmToolsConfig config) {
+
+		final ClientConfig clientConfig = new ClientConfig().register(MultiPartFeature.class)
+				.property(ClientProperties.CHUNKED_ENCODING_SIZE, CHUNK_SIZE)
+				.property(ClientProperties.REQUEST_ENTITY_PROCESSING, CHUNKED)
+				.property(ClientProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, CHUNK_SIZE)
+				.property(ClientProperties.CONNECT_TIMEOUT, REQUEST_TIMEOUT)
+				.property(ClientProperties.READ_TIMEOUT, REQUEST_TIMEOUT)
+				.property(LoggingFeature.LOGGING_FEATURE_VERBOSITY_CLIENT, LoggingFeature.Verbosity.HEADERS_ONLY)
+				.property(LoggingFeature.LOGGING_FEATURE_LOGGER_LEVEL_CLIENT, Level.INFO.toString())
+				.register(LoggingFeature.class);
+
+		switch (config.getHttpConnector()) {
+
+			case POOLED:
+
+				final PoolingHttpClientConnectionManager connectionManager = createConnectionManager(config);
+
+				// the pool is closed by shutdown() (after its statistics are logged) and not by the connector
+				clientConfig.connectorProvider(new ApacheConnectorProvider())
+						.property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager)
+						.property(ApacheClientProperties.CONNECTION_MANAGER_SHARED, true);
+
+				optionalConnectionManager = Optional.of(connectionManager);
+				optionalPoolStatsLogging = Optional.of(logConnectionPoolStatsPeriodically(connectionManager));
+
+				break;
+			case NON_BLOCKING:
+
+				// the threads only dispatch the requests and hand over the responses, i.e., they are never parked by an in-flight request
+				clientConfig.connectorProvider(new GrizzlyConnectorProvider((jerseyClient, configuration, builder) -> configureNonBlockingClient(config, builder)))
+						.property(ClientProperties.ASYNC_THREADPOOL_SIZE, NON_BLOCKING_THREADS);
+
+				break;
+			default:
+
+				break;
+		}
+
+		return ClientBuilder.newClient(clientConfig);
+	}
+
+	private static PoolingHttpClientConnectionManager createConnectionManager(final DswarmToolsConfig config) {
+
+		final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+
+		connectionManager.setMaxTotal(config.getHttpPoolSize());
+		connectionManager.setDefaultMaxPerRoute(config.getHttpMaxConnectionsPerHost());
+
+		// 0 = OS default (i.e. the socket buffer size isn't set)
+		connectionManager.setDefaultSocketConfig(SocketConfig.custom()
+				.setSoKeepAlive(true)
+				.setTcpNoDelay(true)
+				.setSndBufSize(config.getSocketSendBufferSize())
+				.setRcvBufSize(config.getSocketReceiveBufferSize())
+				.build());
+
+		LOG.info("created HTTP connection pool with at most '{}' connections ('{}' per host); socket send buffer size = '{}'; socket receive buffer size = '{}'",
+				connectionManager.getMaxTotal(), connectionManager.getDefaultMaxPerRoute(), config.getSocketSendBufferSize(), config.getSocketReceiveBufferSize());
+
+		return connectionManager;
+	}
+
+	/**
+	 * logs the statistics of the given connection pool periodically (if they changed), i.e., waiting requests indicate that the pool is
+	 * too small for the configured concurrency
+	 */
+	private static Subscription logConnectionPoolStatsPeriodically(final PoolingHttpClientConnectionManager connectionManager) {
+
+		final AtomicReference<String> lastPoolStats = new AtomicReference<>();
+
+		return Observable.interval(POOL_STATS_LOGGING_INTERVAL, TimeUnit.SECONDS)
+				.map(tick -> connectionManager.getTotalStats())
+				.filter(poolStats -> !poolStats.toString().equals(lastPoolStats.getAndSet(poolStats.toString())))
+				.subscribe(poolStats -> logConnectionPoolStats(poolStats, "in use"));
+	}
+
+	private static void logConnectionPoolStats(final PoolStats poolStats, final String state) {
+
+		LOG.info("HTTP connection pool {}: leased = '{}'; idle = '{}'; waiting = '{}'; max = '{}'",
+				state, poolStats.getLeased(), poolStats.getAvailable(), poolStats.getPending(), poolStats.getMax());
+	}
+
+	private static AsyncHttpClientConfig.Builder configureNonBlockingClient(final DswarmToolsConfig config, final AsyncHttpClientConfig.Builder builder) {
+
+		final int socketSendBufferSize = config.getSocketSendBufferSize();
+		final int socketReceiveBufferSize = config.getSocketReceiveBufferSize();
+
+		final GrizzlyAsyncHttpProviderConfig providerConfig = new GrizzlyAsyncHttpProviderConfig();
+
+		providerConfig.addProperty(GrizzlyAsyncHttpProviderConfig.Property.TRANSPORT_CUSTOMIZER, (TransportCustomizer) (transport, filterChainBuilder) -> {
+
+			transport.setKeepAlive(true);
+			transport.setTcpNoDelay(true);
+
+			// 0 = OS default (i.e. the socket buffer size isn't set)
+			if (socketSendBufferSize > 0) {
+
+				transport.setWriteBufferSize(socketSendBufferSize);
+			}
+
+			if (socketReceiveBufferSize > 0) {
+
+				transport.setReadBufferSize(socketReceiveBufferSize);
+			}
+		});
+
+		LOG.info("created non-blocking HTTP client with '{}' threads and at most '{}' connections ('{}' per host); socket send buffer size = '{}'; socket receive buffer size = '{}'",
+				NON_BLOCKING_THREADS, config.getHttpPoolSize(), config.getHttpMaxConnectionsPerHost(), socketSendBufferSize, socketReceiveBufferSize);
 
-		return CLIENT;
+		return builder.setAllowPoolingConnections(true)
+				.setMaxConnections(config.getHttpPoolSize())
+				.setMaxConnectionsPerHost(config.getHttpMaxConnectionsPerHost())
+				.setAsyncHttpClientProviderConfig(providerConfig);
 	}
 
 	protected WebTarget target() {
 
-		return client().target(apiBaseURI);
+		return client(config).target(apiBaseURI);
 	}
 
 	protected WebTarget target(final String... path) {
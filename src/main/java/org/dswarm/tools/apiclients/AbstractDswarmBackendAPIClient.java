@@ -15,19 +15,30 @@
  */
 package org.dswarm.tools.apiclients;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import com.fasterxml.jackson.core.JsonParser;
+import javaslang.Tuple;
 import javaslang.Tuple2;
+import javaslang.Tuple3;
 import org.glassfish.jersey.client.rx.RxWebTarget;
 import org.glassfish.jersey.client.rx.rxjava.RxObservableInvoker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
 
+import org.dswarm.tools.DswarmToolsConfig;
+import org.dswarm.tools.DswarmToolsError;
+import org.dswarm.tools.DswarmToolsException;
 import org.dswarm.tools.DswarmToolsStatics;
-import org.dswarm.tools.utils.DswarmToolUtils;
+import org.dswarm.tools.utils.ImportFile;
+import org.dswarm.tools.utils.JsonArrayFieldIterator;
 
 /**
  * @author tgaengler
@@ -40,22 +51,32 @@ public abstract class AbstractDswarmBackendAPIClient extends AbstractAPIClient {
 	private static final String FORMAT_IDENTIFIER = "format";
 	private static final String SHORT_FORMAT_IDENTIFIER = "short";
 
-	public AbstractDswarmBackendAPIClient(final String dswarmBackendAPIBaseURI, final String objectName) {
+	public AbstractDswarmBackendAPIClient(final String dswarmBackendAPIBaseURI, final String objectName, final DswarmToolsConfig config) {
 
-		super(dswarmBackendAPIBaseURI, objectName);
+		super(dswarmBackendAPIBaseURI, objectName, config);
 	}
 
 	public Observable<Tuple2<String, String>> fetchObjects() {
 
+		// object descriptions have a comparable size, i.e., latency spikes signal an overload
+		final Optional<AdaptiveConcurrencyLimiter> limiter = createConcurrencyLimiter("retrieval", config.getRetrievalConcurrency(), true);
+
 		// 1. retrieve all objects (in short form)
-		return retrieveAllObjectIds()
-				// 2. for each object: retrieve complete object
-				.flatMap(this::retrieveObject);
+		// 2. for each object: retrieve complete object (with a bounded number of parallel requests)
+		return flatMapLimited(retrieveAllObjectIds(), this::retrieveObject, config.getRetrievalConcurrency(), limiter, objectDescription -> false);
 	}
 
-	public Observable<Tuple2<String, String>> importObjects(final Observable<Tuple2<String, String>> objectDescriptionTupleObservable) {
-
-		return objectDescriptionTupleObservable.flatMap(this::importObject);
+	/**
+	 * Imports the objects with a bounded number of parallel requests (max open files), i.e., the next object file is only taken
+	 * (and opened, when its request entity is written), when an upload slot is available.
+	 *
+	 * @param objectDescriptionTupleObservable v1 = object identifier; v2 = file of the object description (JSON; a separate file or a packed object); v3 = expected
+	 *                                         checksum (CRC32C) of the file (optional)
+	 * @return v1 = object identifier; v2 = response object description (JSON)
+	 */
+	public Observable<Tuple2<String, String>> importObjects(final Observable<Tuple3<String, ImportFile, Optional<String>>> objectDescriptionTupleObservable) {
+
+		return objectDescriptionTupleObservable.flatMap(this::importObject, config.getMaxOpenFiles());
 	}
 
 	private Observable<String> retrieveAllObjectIds() {
@@ -77,6 +98,8 @@ public abstract class AbstractDswarmBackendAPIClient extends AbstractAPIClient {
 
 						LOG.error("could not retrieve all '{}s' (got response status = '{}')", objectName, responseStatus);
 
+						closeResponse(response);
+
 						return false;
 					}
 
@@ -85,15 +108,37 @@ public abstract class AbstractDswarmBackendAPIClient extends AbstractAPIClient {
 					return true;
 				})
 				.filter(Response::hasEntity)
-				.map(response -> response.readEntity(String.class))
-				.map(objectDescriptionsJSON -> {
+				// parse the listing incrementally, i.e., each identifier is emitted as soon as its element is read
+				.flatMap(response -> Observable.using(
+						() -> createParser(response),
+						parser -> Observable.from((Iterable<String>) () -> new JsonArrayFieldIterator(parser, DswarmToolsStatics.UUID_IDENTIFIER)),
+						AbstractDswarmBackendAPIClient::closeParser));
+	}
 
-					final String errorMessage = String.format("something went wrong, while trying to retrieve short descriptions of all %ss", objectName);
+	private JsonParser createParser(final Response response) {
 
-					return DswarmToolUtils.deserializeAsArrayNode(objectDescriptionsJSON, errorMessage);
-				})
-				.flatMap(objectDescriptionsJSON -> Observable.from(objectDescriptionsJSON)
-						.map(objectDescriptionJSON -> objectDescriptionJSON.get(DswarmToolsStatics.UUID_IDENTIFIER).asText()));
+		try {
+
+			return DswarmToolsStatics.MAPPER.getFactory().createParser(response.readEntity(InputStream.class));
+		} catch (final IOException e) {
+
+			final String message = String.format("something went wrong, while trying to retrieve short descriptions of all %ss", objectName);
+
+			LOG.error(message, e);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+		}
+	}
+
+	private static void closeParser(final JsonParser parser) {
+
+		try {
+
+			parser.close();
+		} catch (final IOException e) {
+
+			LOG.error("couldn't close parser", e);
+		}
 	}
 
 	public Observable<Tuple2<String, String>> retrieveObject(final String objectIdentifier) {
@@ -118,6 +163,8 @@ public abstract class AbstractDswarmBackendAPIClient extends AbstractAPIClient {
 
 						LOG.error("could not retrieve '{}' with id = '{}' (got response status = '{}')", objectName, objectIdentifier, responseStatus);
 
+						closeResponse(response);
+
 						return false;
 					}
 
@@ -127,6 +174,8 @@ public abstract class AbstractDswarmBackendAPIClient extends AbstractAPIClient {
 				})
 				.filter(Response::hasEntity)
 				.map(response -> response.readEntity(String.class))
+				// the response entity is read by an HTTP thread, the object description is transformed by a CPU thread
+				.observeOn(jsonScheduler)
 				.map(objectDescriptionJSONString -> {
 
 					LOG.debug("retrieved full {} description for {} '{}'", objectName, objectName, objectIdentifier);
@@ -136,10 +185,11 @@ public abstract class AbstractDswarmBackendAPIClient extends AbstractAPIClient {
 				.map(objectDescriptionJSON -> serializeObjectJSON(objectIdentifier, objectDescriptionJSON));
 	}
 
-	protected Observable<Tuple2<String, String>> importObject(final Tuple2<String, String> objectDescriptionTuple) {
+	protected Observable<Tuple2<String, String>> importObject(final Tuple3<String, ImportFile, Optional<String>> objectDescriptionTuple) {
 
 		final String objectIdentifier = objectDescriptionTuple._1;
-		final String objectDescriptionJSONString = objectDescriptionTuple._2;
+		final ImportFile objectDescriptionJSONFile = objectDescriptionTuple._2;
+		final Optional<String> optionalChecksum = objectDescriptionTuple._3;
 
 		LOG.debug("trying to import full {} description of {} '{}'", objectName, objectName, objectIdentifier);
 
@@ -149,7 +199,11 @@ public abstract class AbstractDswarmBackendAPIClient extends AbstractAPIClient {
 				.accept(MediaType.APPLICATION_JSON_TYPE)
 				.rx();
 
-		return rx.post(Entity.entity(objectDescriptionJSONString, MediaType.APPLICATION_JSON))
+		// the file content is sent as is, i.e., without decoding it (compressed files are decompressed while streaming; a checksum
+		// mismatch aborts the request)
+		final FileStreamingOutput objectDescriptionJSONEntity = new FileStreamingOutput(objectDescriptionJSONFile, config.getUploadChunkSize(), optionalChecksum);
+
+		return rx.post(Entity.entity(objectDescriptionJSONEntity, MediaType.APPLICATION_JSON))
 				.observeOn(importScheduler)
 				.filter(response -> {
 
@@ -159,6 +213,8 @@ public abstract class AbstractDswarmBackendAPIClient extends AbstractAPIClient {
 
 						LOG.error("could not create '{}' '{}' (got response status = '{}')", objectName, objectIdentifier, responseStatus);
 
+						closeResponse(response);
+
 						return false;
 					}
 
@@ -167,14 +223,12 @@ public abstract class AbstractDswarmBackendAPIClient extends AbstractAPIClient {
 					return true;
 				})
 				.filter(Response::hasEntity)
-				.map(response -> response.readEntity(String.class))
-				.map(responseObjectDescriptionJSONString -> {
+				.map(response -> {
 
 					LOG.debug("imported full {} description for {} '{}'", objectName, objectName, objectIdentifier);
 
-					return getObjectJSON(objectIdentifier, responseObjectDescriptionJSONString);
-				})
-				.map(objectDescriptionJSON -> serializeObjectJSON(objectIdentifier, objectDescriptionJSON));
+					return Tuple.of(objectIdentifier, response.readEntity(String.class));
+				});
 	}
 
 	protected String getObjectsImportEndpoint() {
@@ -0,0 +1,275 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.apiclients;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Func1;
+
+/**
+ * Limits the number of parallel requests of a processing stage (e.g. data model content import) adaptively (AIMD = additive
+ * increase, multiplicative decrease), i.e., the limit is raised by one per round of requests (that utilised the current limit),
+ * while the requests succeed (and their latency stays flat), and it is cut by half on an overload signal, i.e., a failed request
+ * (e.g. timeout), a 5xx response or (for latency sensitive stages) a latency spike (compared to the no-load latency, i.e., the
+ * minimum latency of the recent requests). This way, the limit converges to the maximum safe concurrency of the d:swarm instance that
+ * is utilised. Each change of the limit is logged.
+ *
+ * The limit is applied without blocking, i.e., a request that exceeds the limit is deferred until a permit is released by a
+ * completed request.
+ *
+ * @author tgaengler
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+	private static final int MIN_LIMIT = 1;
+	private static final double BACKOFF_RATIO = 0.5;
+
+	/**
+	 * a request latency that exceeds the no-load latency by this factor is a latency spike
+	 */
+	private static final double LATENCY_TOLERANCE = 2.0;
+
+	/**
+	 * the no-load latency is re-estimated after this number of latency samples (i.e. it follows a changing baseline)
+	 */
+	private static final int LATENCY_WINDOW = 100;
+
+	private final String stage;
+	private final int maxLimit;
+	private final boolean latencySensitive;
+
+	private final Queue<Runnable> pendingRequests = new ArrayDeque<>();
+
+	private double limit;
+	private int inFlight = 0;
+	private long lastDecrease;
+	private long noLoadLatency = Long.MAX_VALUE;
+	private long windowMinLatency = Long.MAX_VALUE;
+	private int windowSamples = 0;
+
+	/**
+	 * @param stageArg            the name of the processing stage (for logging)
+	 * @param maxLimitArg         the upper bound of the limit (i.e. the configured concurrency of the stage)
+	 * @param latencySensitiveArg true, if latency spikes should cut the limit (only reasonable, if the requests of the stage have a
+	 *                            comparable size)
+	 */
+	public AdaptiveConcurrencyLimiter(final String stageArg, final int maxLimitArg, final boolean latencySensitiveArg) {
+
+		stage = stageArg;
+		maxLimit = Math.max(MIN_LIMIT, maxLimitArg);
+		latencySensitive = latencySensitiveArg;
+		limit = MIN_LIMIT;
+		lastDecrease = System.nanoTime();
+
+		LOG.info("{} concurrency limit = '{}' (adaptive; max = '{}')", stage, MIN_LIMIT, maxLimit);
+	}
+
+	/**
+	 * @return the upper bound of the limit, i.e., the maximum concurrency of the stage
+	 */
+	public int getMaxLimit() {
+
+		return maxLimit;
+	}
+
+	/**
+	 * Subscribes the given request, when a permit is available, and releases the permit, when the request terminated. The request is
+	 * an overload signal, if it fails, if it completes without any result or if one of its results is an overload signal.
+	 *
+	 * @param request    the request (cold observable)
+	 * @param isOverload true, if the given result signals an overload (e.g. 5xx response)
+	 * @return the (limited) request
+	 */
+	public <T> Observable<T> limit(final Observable<T> request, final Func1<? super T, Boolean> isOverload) {
+
+		return Observable.create((Observable.OnSubscribe<Long>) subscriber -> acquire(subscriber))
+				.concatMap(startTime -> {
+
+					final AtomicBoolean released = new AtomicBoolean(false);
+					final AtomicBoolean overload = new AtomicBoolean(false);
+					final AtomicBoolean empty = new AtomicBoolean(true);
+					final AtomicReference<Throwable> error = new AtomicReference<>();
+
+					return request
+							.doOnNext(result -> {
+
+								empty.set(false);
+
+								if (isOverload.call(result)) {
+
+									overload.set(true);
+								}
+							})
+							.doOnError(error::set)
+							.doOnTerminate(() -> {
+
+								if (released.compareAndSet(false, true)) {
+
+									release(startTime, overload.get() || empty.get() || error.get() != null);
+								}
+							})
+							.doOnUnsubscribe(() -> {
+
+								// e.g. the consumer stopped the processing, i.e., the request is neither a success nor an overload signal
+								if (released.compareAndSet(false, true)) {
+
+									cancel();
+								}
+							});
+				});
+	}
+
+	/**
+	 * emits the start time of the request, when a permit is available (immediately or on the release of another permit)
+	 */
+	private void acquire(final Subscriber<? super Long> subscriber) {
+
+		final Runnable start = () -> {
+
+			if (subscriber.isUnsubscribed()) {
+
+				// the permit is not needed anymore
+				cancel();
+
+				return;
+			}
+
+			subscriber.onNext(System.nanoTime());
+			subscriber.onCompleted();
+		};
+
+		synchronized (this) {
+
+			if (inFlight >= (int) limit) {
+
+				pendingRequests.add(start);
+
+				return;
+			}
+
+			inFlight++;
+		}
+
+		start.run();
+	}
+
+	private void release(final long startTime, final boolean overload) {
+
+		final long now = System.nanoTime();
+		final long latency = now - startTime;
+		final List<Runnable> startableRequests = new ArrayList<>();
+
+		synchronized (this) {
+
+			final int previousLimit = (int) limit;
+			final boolean latencySpike = latencySensitive && !overload && noLoadLatency != Long.MAX_VALUE
+					&& latency > noLoadLatency * LATENCY_TOLERANCE;
+
+			if (overload || latencySpike) {
+
+				// only one decrease per round of requests, i.e., requests that were started before the last decrease don't cut the limit again
+				if (startTime >= lastDecrease) {
+
+					limit = Math.max(MIN_LIMIT, limit * BACKOFF_RATIO);
+					lastDecrease = now;
+				}
+			} else {
+
+				if (latencySensitive) {
+
+					updateNoLoadLatency(latency);
+				}
+
+				// the limit is only raised, if it was utilised (i.e. an idle stage doesn't raise its limit)
+				if (inFlight >= previousLimit) {
+
+					limit = Math.min(maxLimit, limit + 1.0 / limit);
+				}
+			}
+
+			inFlight--;
+
+			if ((int) limit != previousLimit) {
+
+				LOG.info("{} concurrency limit = '{}' (in flight = '{}'; latency = '{}' ms; no-load latency = '{}' ms; {})", stage, (int) limit,
+						inFlight, TimeUnit.NANOSECONDS.toMillis(latency),
+						noLoadLatency != Long.MAX_VALUE ? TimeUnit.NANOSECONDS.toMillis(noLoadLatency) : "-",
+						overload ? "overload" : latencySpike ? "latency spike" : "success");
+			}
+
+			pollStartableRequests(startableRequests);
+		}
+
+		startableRequests.forEach(Runnable::run);
+	}
+
+	/**
+	 * releases the permit of a cancelled request, i.e., the limit and the latency statistics are not changed
+	 */
+	private void cancel() {
+
+		final List<Runnable> startableRequests = new ArrayList<>();
+
+		synchronized (this) {
+
+			inFlight--;
+
+			pollStartableRequests(startableRequests);
+		}
+
+		startableRequests.forEach(Runnable::run);
+	}
+
+	/**
+	 * takes the pending requests that fit into the current limit (needs to be called with the lock held), i.e., the requests need to be
+	 * started (outside of the lock) by the caller
+	 */
+	private void pollStartableRequests(final List<Runnable> startableRequests) {
+
+		while (inFlight < (int) limit && !pendingRequests.isEmpty()) {
+
+			startableRequests.add(pendingRequests.poll());
+
+			inFlight++;
+		}
+	}
+
+	private void updateNoLoadLatency(final long latency) {
+
+		noLoadLatency = Math.min(noLoadLatency, latency);
+		windowMinLatency = Math.min(windowMinLatency, latency);
+		windowSamples++;
+
+		if (windowSamples >= LATENCY_WINDOW) {
+
+			noLoadLatency = windowMinLatency;
+			windowMinLatency = Long.MAX_VALUE;
+			windowSamples = 0;
+		}
+	}
+}
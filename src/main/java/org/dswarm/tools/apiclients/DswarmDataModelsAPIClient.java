@@ -18,6 +18,7 @@ package org.dswarm.tools.apiclients;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.DswarmToolsStatics;
 
 /**
@@ -27,8 +28,8 @@ public final class DswarmDataModelsAPIClient extends AbstractDswarmBackendAPICli
 
 	private static final Logger LOG = LoggerFactory.getLogger(DswarmDataModelsAPIClient.class);
 
-	public DswarmDataModelsAPIClient(final String dswarmBackendAPIBaseURI) {
+	public DswarmDataModelsAPIClient(final String dswarmBackendAPIBaseURI, final DswarmToolsConfig config) {
 
-		super(dswarmBackendAPIBaseURI, DswarmToolsStatics.DATA_MODEL);
+		super(dswarmBackendAPIBaseURI, DswarmToolsStatics.DATA_MODEL, config);
 	}
 }
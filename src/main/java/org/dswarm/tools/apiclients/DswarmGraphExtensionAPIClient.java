@@ -15,12 +15,18 @@
  */
 package org.dswarm.tools.apiclients;
 
-import java.io.BufferedInputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.concurrent.Executors;
-
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -30,7 +36,9 @@ import com.google.common.net.HttpHeaders;
 import com.google.common.util.concurrent.Futures;
 import javaslang.Tuple;
 import javaslang.Tuple2;
-import javaslang.Tuple3;
+import javaslang.Tuple4;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.rx.RxInvocationBuilder;
 import org.glassfish.jersey.client.rx.RxWebTarget;
 import org.glassfish.jersey.client.rx.rxjava.RxObservableInvoker;
 import org.glassfish.jersey.media.multipart.MultiPart;
@@ -38,12 +46,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
 import rx.Scheduler;
-import rx.schedulers.Schedulers;
+import rx.functions.Func1;
 
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.DswarmToolsError;
 import org.dswarm.tools.DswarmToolsException;
 import org.dswarm.tools.DswarmToolsStatics;
 import org.dswarm.tools.utils.DswarmToolUtils;
+import org.dswarm.tools.utils.ImportFile;
 
 /**
  * @author tgaengler
@@ -64,28 +74,101 @@ public final class DswarmGraphExtensionAPIClient extends AbstractAPIClient {
 
 	private static final String WRITE_GDM = "write to graph database";
 
-	private static final Scheduler IMPORT_SCHEDULER = Schedulers.from(Executors.newSingleThreadExecutor());
+	private static final long BYTES_PER_MB = 1024 * 1024;
+
+	/**
+	 * status of a data model content import that failed without a response from the d:swarm graph extension
+	 */
+	public static final String FAILED_STATUS = "failed";
 
 	static {
 
 		System.setProperty("sun.net.http.allowRestrictedHeaders", "true");
 	}
 
-	public DswarmGraphExtensionAPIClient(final String dswarmGraphExtensionAPIBaseURI) {
+	public DswarmGraphExtensionAPIClient(final String dswarmGraphExtensionAPIBaseURI, final DswarmToolsConfig config) {
 
-		super(dswarmGraphExtensionAPIBaseURI, DswarmToolsStatics.DATA_MODEL);
+		super(dswarmGraphExtensionAPIBaseURI, DswarmToolsStatics.DATA_MODEL, config);
 	}
 
 	public Observable<Tuple2<String, String>> fetchDataModelsContent(final Observable<Tuple2<String, String>> dataModelRequestInputObservable) {
 
-		return dataModelRequestInputObservable
-				.flatMap(dataModelRequestInput -> generateReadDataModelRequest(dataModelRequestInput)
-						.flatMap(this::retrieveDataModelContent));
+		return flatMapLimited(dataModelRequestInputObservable,
+				dataModelRequestInput -> generateReadDataModelRequest(dataModelRequestInput).flatMap(this::retrieveDataModelContent),
+				config.getContentRetrievalConcurrency(), createContentRetrievalLimiter(), dataModelContent -> false);
 	}
 
-	public Observable<Tuple2<String, String>> importDataModelsContent(final Observable<Tuple3<String, String, InputStream>> dataModelWriteRequestTripleObservable) {
+	/**
+	 * Retrieves the content of the data models as streams (with a bounded number of parallel requests) and hands each content stream
+	 * over to the given consumer, i.e., a content retrieval request lasts until its content stream is consumed.
+	 *
+	 * @param dataModelRequestInputObservable v1 = data model identifier; v2 = record class URI
+	 * @param dataModelContentStreamConsumer  consumes (and closes) a content stream (v1 = data model identifier; v2 = data model
+	 *                                        content (GDM JSON) stream)
+	 * @return the results of the consumer
+	 */
+	public <R> Observable<R> processDataModelsContentStreams(final Observable<Tuple2<String, String>> dataModelRequestInputObservable,
+			final Func1<Tuple2<String, InputStream>, R> dataModelContentStreamConsumer) {
+
+		return flatMapLimited(dataModelRequestInputObservable,
+				dataModelRequestInput -> fetchDataModelContentStream(dataModelRequestInput).map(dataModelContentStreamConsumer),
+				config.getContentRetrievalConcurrency(), createContentRetrievalLimiter(), result -> false);
+	}
+
+	/**
+	 * Retrieves the content of a data model as stream, i.e., the content is not read into memory at this point. The consumer is
+	 * in charge of consuming and closing the content stream. If an export page size is configured, the content is retrieved page by
+	 * page while the stream is consumed.
+	 *
+	 * @param dataModelRequestInput v1 = data model identifier; v2 = record class URI
+	 * @return v1 = data model identifier; v2 = data model content (GDM JSON) stream
+	 */
+	public Observable<Tuple2<String, InputStream>> fetchDataModelContentStream(final Tuple2<String, String> dataModelRequestInput) {
+
+		final int pageSize = config.getExportPageSize();
+
+		if (pageSize > 0) {
+
+			final String dataModelId = dataModelRequestInput._1;
+
+			return Observable.fromCallable(() -> Tuple.<String, InputStream>of(dataModelId, new PagedContentInputStream(dataModelId, pageSize,
+					(offset, atMost) -> retrieveDataModelContentPage(dataModelRequestInput, offset, atMost))))
+					.subscribeOn(exportScheduler);
+		}
 
-		return dataModelWriteRequestTripleObservable.flatMap(this::importDataModelContent, 1);
+		return generateReadDataModelRequest(dataModelRequestInput)
+				.flatMap(this::retrieveDataModelContentStream);
+	}
+
+	/**
+	 * Imports the content of the data models with a bounded number of parallel requests (an import concurrency of 1 results in a
+	 * strictly serial processing in the order of the given write requests). The import of each data model is isolated, i.e., a
+	 * failing data model content import doesn't stop the import of the other data models. If an import batch size is configured,
+	 * the content of each data model is split into record batches that are uploaded with separate (parallel) requests. Each data
+	 * model content import holds its file open while it is uploaded, i.e., the import concurrency is limited by the max open files.
+	 *
+	 * @param dataModelWriteRequestTupleObservable v1 = data model identifier; v2 = write request metadata (JSON); v3 = data model content
+	 *                                            file; v4 = expected checksum (CRC32C) of the data model content file (optional)
+	 * @return v1 = data model identifier; v2 = response status code (or failed status)
+	 */
+	public Observable<Tuple2<String, String>> importDataModelsContent(final Observable<Tuple4<String, String, Path, Optional<String>>> dataModelWriteRequestTupleObservable) {
+
+		final int importConcurrency = Math.min(config.getImportConcurrency(), config.getMaxOpenFiles());
+
+		// the upload duration depends on the size of the data model content, i.e., only failed requests and 5xx responses signal an overload
+		final Optional<AdaptiveConcurrencyLimiter> limiter = createConcurrencyLimiter("import", importConcurrency, false);
+
+		return flatMapLimited(dataModelWriteRequestTupleObservable, this::importDataModelContent, importConcurrency, limiter,
+				importResult -> FAILED_STATUS.equals(importResult._2) || importResult._2.startsWith("5"));
+	}
+
+	/**
+	 * the content retrieval duration depends on the size of the data model content, i.e., only failed requests and non-200 responses
+	 * signal an overload
+	 */
+	private Optional<AdaptiveConcurrencyLimiter> createContentRetrievalLimiter() {
+
+		return createConcurrencyLimiter("content retrieval", config.getContentRetrievalConcurrency(), false);
 	}
 
 	private static Observable<Tuple2<String, String>> generateReadDataModelRequest(final Tuple2<String, String> dataModelRequestInputTuple) {
@@ -104,66 +187,291 @@ public final class DswarmGraphExtensionAPIClient extends AbstractAPIClient {
 				.map(requestJSONString -> Tuple.of(dataModelId, requestJSONString));
 	}
 
+	/**
+	 * Retrieves a window of records of the content of a data model (blocking, i.e., this is executed by the consumer of the paged
+	 * content stream).
+	 *
+	 * @param dataModelRequestInput v1 = data model identifier; v2 = record class URI
+	 * @return the records of the page (JSON array)
+	 */
+	private byte[] retrieveDataModelContentPage(final Tuple2<String, String> dataModelRequestInput, final long offset, final int atMost) throws IOException {
+
+		final String dataModelId = dataModelRequestInput._1;
+
+		final ObjectNode requestJSON = DswarmToolsStatics.MAPPER.createObjectNode()
+				.put(DswarmToolsStatics.DATA_MODEL_URI_IDENTIFIER, String.format(DswarmToolsStatics.DATA_MODEL_URI_TEMPLATE, dataModelId))
+				.put(DswarmToolsStatics.RECORD_CLASS_URI_IDENTIFIER, dataModelRequestInput._2)
+				.put(DswarmToolsStatics.OFFSET_IDENTIFIER, offset)
+				.put(DswarmToolsStatics.AT_MOST_IDENTIFIER, atMost);
+
+		final String requestJSONString = DswarmToolUtils.serialize(requestJSON, "something went wrong while serializing the request JSON for the read-data-model-content-request");
+
+		try {
+
+			final Response response = target(READ_DATA_MODEL_CONTENT_ENDPOINT).request()
+					.accept(MediaType.APPLICATION_JSON_TYPE)
+					.post(Entity.entity(requestJSONString, MediaType.APPLICATION_JSON));
+
+			try {
+
+				final int responseStatus = response.getStatus();
+
+				if (responseStatus != 200) {
+
+					throw new IOException(String.format("could not retrieve content of data model '%s' (offset = '%s', at most = '%s'; got response status = '%s')", dataModelId, offset, atMost, responseStatus));
+				}
+
+				return response.readEntity(byte[].class);
+			} finally {
+
+				response.close();
+			}
+		} catch (final ProcessingException e) {
+
+			throw new IOException(String.format("could not retrieve content of data model '%s' (offset = '%s', at most = '%s')", dataModelId, offset, atMost), e);
+		}
+	}
+
 	private Observable<Tuple2<String, String>> retrieveDataModelContent(final Tuple2<String, String> readDataModelContentRequestTuple) {
 
 		return executePOSTRequest(readDataModelContentRequestTuple, READ_DATA_MODEL_CONTENT_ENDPOINT, EXPORT_TYPE, exportScheduler);
 	}
 
-	private Observable<Tuple2<String, String>> importDataModelContent(final Tuple3<String, String, InputStream> writeDataModelContentRequestTriple) {
+	private Observable<Tuple2<String, InputStream>> retrieveDataModelContentStream(final Tuple2<String, String> readDataModelContentRequestTuple) {
+
+		return executeStreamingPOSTRequest(readDataModelContentRequestTuple, READ_DATA_MODEL_CONTENT_ENDPOINT, exportScheduler);
+	}
+
+	private Observable<Tuple2<String, String>> importDataModelContent(final Tuple4<String, String, Path, Optional<String>> writeDataModelContentRequestTuple) {
 
-		final String dataModelId = writeDataModelContentRequestTriple._1;
-		final String writeDataModelContentRequestJSONString = writeDataModelContentRequestTriple._2;
-		final InputStream dataModelContentJSONIS = writeDataModelContentRequestTriple._3;
+		final String dataModelId = writeDataModelContentRequestTuple._1;
+		final String writeDataModelContentRequestJSONString = writeDataModelContentRequestTuple._2;
+		final Path dataModelContentJSONFile = writeDataModelContentRequestTuple._3;
+		final Optional<String> optionalChecksum = writeDataModelContentRequestTuple._4;
 
 		LOG.debug("metadata for write data model content request = '{}'", writeDataModelContentRequestJSONString);
 
-		final RxWebTarget<RxObservableInvoker> rxWebTarget = rxWebTarget(WRITE_DATA_MODEL_CONTENT_ENDPOINT);
+		if (config.getImportBatchSize() > 0) {
 
-		final RxObservableInvoker rx = rxWebTarget.request(MULTIPART_MIXED).header(HttpHeaders.TRANSFER_ENCODING, CHUNKED_TRANSFER_ENCODING).rx();
+			return importDataModelContentInBatches(dataModelId, writeDataModelContentRequestJSONString, dataModelContentJSONFile, optionalChecksum);
+		}
 
-		final MultiPart multiPart = new MultiPart();
-		final BufferedInputStream entity1 = new BufferedInputStream(dataModelContentJSONIS, CHUNK_SIZE);
+		// the file will be streamed (in chunks of the upload chunk size) via a file channel, when the request entity is written
+		// (a checksum mismatch aborts the request)
+		final FileStreamingOutput entity1 = new FileStreamingOutput(dataModelContentJSONFile, config.getUploadChunkSize(), optionalChecksum);
 
-		multiPart
+		final MultiPart multiPart = new MultiPart()
 				.bodyPart(writeDataModelContentRequestJSONString, MediaType.APPLICATION_JSON_TYPE)
 				.bodyPart(entity1, MediaType.APPLICATION_OCTET_STREAM_TYPE);
 
-		// POST the request
-		final Entity<MultiPart> entity = Entity.entity(multiPart, MULTIPART_MIXED);
-
-		final Observable<Response> post = rx.post(entity).observeOn(IMPORT_SCHEDULER);
+		final Observable<Response> post = executeWriteDataModelContentRequest(multiPart);
 
 		return post.map(response -> {
 
 			int status = response.getStatus();
 
-			try {
-
-				closeResource(multiPart, WRITE_GDM);
-				closeResource(entity1, WRITE_GDM);
-				closeResource(dataModelContentJSONIS, WRITE_GDM);
-
-			} catch (final DswarmToolsException e) {
-
-				throw DswarmToolsError.wrap(e);
-			}
-
 			if (status == 200) {
 
 				LOG.debug("wrote GDM data for data model '{}' into data hub", dataModelId);
+
+				logUploadThroughput(dataModelId, entity1);
+
+				closeResponse(response);
 			} else {
 
-				throw DswarmToolsError.wrap(new DswarmToolsException(
-						String.format("Couldn't store GDM data into database. Received status code '%s' from database endpoint (response body = '%s').", status, response.readEntity(String.class))));
+				LOG.error("Couldn't store GDM data of data model '{}' into database. Received status code '{}' from database endpoint (response body = '{}').", dataModelId, status, response.readEntity(String.class));
 			}
 
 			return Tuple.of(dataModelId, String.valueOf(status));
 		})
-				.doOnError(throwable -> {
+				// isolate the failure of this data model content import from the other ones
+				.onErrorReturn(throwable -> {
+
+					LOG.error("Couldn't store GDM data of data model '{}' into database", dataModelId, throwable);
+
+					return Tuple.of(dataModelId, FAILED_STATUS);
+				})
+				.doAfterTerminate(() -> {
+
+					try {
+
+						closeResource(multiPart, WRITE_GDM);
+					} catch (final DswarmToolsException e) {
+
+						LOG.error("couldn't close resources of data model '{}' content import", dataModelId, e);
+					}
+				})
+				.doOnCompleted(() -> LOG.debug("completely processed GDM data import for data model '{}'", dataModelId));
+	}
+
+	/**
+	 * Splits the content of a data model into record batches (of the import batch size) while reading it and uploads each batch with
+	 * a separate request, i.e., only the batches that are currently uploaded are held in memory. The batches are uploaded with a
+	 * bounded number of parallel requests (import batch concurrency). Since the records are written without deprecating missing
+	 * records, the batches are independent from each other, i.e., a failed batch upload is retried on its own. If a checksum is given,
+	 * it is verified before the first batch is read, i.e., no batch of a corrupted content file is uploaded.
+	 *
+	 * @return v1 = data model identifier; v2 = status code 200 (if all batches could be uploaded) or failed status
+	 */
+	private Observable<Tuple2<String, String>> importDataModelContentInBatches(final String dataModelId,
+	                                                                           final String writeDataModelContentRequestJSONString,
+	                                                                           final Path dataModelContentJSONFile,
+	                                                                           final Optional<String> optionalChecksum) {
+
+		final int batchSize = config.getImportBatchSize();
+		final int batchRetries = config.getImportBatchRetries();
+
+		final AtomicInteger batchCounter = new AtomicInteger(0);
+		final AtomicLong uploadedBytes = new AtomicLong(0);
+		final long startTime = System.nanoTime();
+
+		return Observable.using(
+				() -> openRecordBatches(dataModelContentJSONFile, batchSize, optionalChecksum),
+				// the next record batch is only read, when an upload slot is available (i.e. the batches are read on demand)
+				recordBatches -> Observable.from(() -> recordBatches)
+						.map(recordBatch -> Tuple.of(batchCounter.incrementAndGet(), recordBatch)),
+				recordBatches -> {
+
+					try {
+
+						closeResource(recordBatches, WRITE_GDM);
+					} catch (final DswarmToolsException e) {
+
+						LOG.error("couldn't close content file of data model '{}'", dataModelId, e);
+					}
+				}, true)
+				.flatMap(recordBatchTuple -> importRecordBatch(dataModelId, writeDataModelContentRequestJSONString, recordBatchTuple._1, recordBatchTuple._2, batchRetries)
+						.doOnNext(uploaded -> {
+
+							if (uploaded) {
+
+								uploadedBytes.addAndGet(recordBatchTuple._2.length);
+							}
+						})
+						.map(uploaded -> Tuple.of(recordBatchTuple._1, uploaded)), config.getImportBatchConcurrency())
+				.toList()
+				.map(recordBatchResults -> {
+
+					final List<Integer> failedRecordBatches = recordBatchResults.stream()
+							.filter(recordBatchResult -> !recordBatchResult._2)
+							.map(recordBatchResult -> recordBatchResult._1)
+							.sorted()
+							.collect(Collectors.toList());
+
+					logUploadThroughput(dataModelId, uploadedBytes.get(), startTime);
+
+					if (!failedRecordBatches.isEmpty()) {
+
+						LOG.error("Couldn't store GDM data of data model '{}' into database completely. '{}' of '{}' record batches (of '{}' records) failed: '{}'",
+								dataModelId, failedRecordBatches.size(), recordBatchResults.size(), batchSize, failedRecordBatches);
+
+						return Tuple.of(dataModelId, FAILED_STATUS);
+					}
 
-					throw DswarmToolsError.wrap(new DswarmToolsException(String.format("Couldn't store GDM data into database (err0r = '%s')", throwable.getMessage())));
+					LOG.debug("wrote GDM data for data model '{}' into data hub ('{}' record batches)", dataModelId, recordBatchResults.size());
+
+					return Tuple.of(dataModelId, String.valueOf(200));
 				})
-				.doOnCompleted(() -> LOG.debug("completely wrote GDM data for data model '{}' into data hub", dataModelId));
+				// e.g. the content file couldn't be read or its checksum doesn't match
+				.onErrorReturn(throwable -> {
+
+					LOG.error("Couldn't store GDM data of data model '{}' into database (after '{}' record batches)", dataModelId, batchCounter.get(), throwable);
+
+					return Tuple.of(dataModelId, FAILED_STATUS);
+				})
+				.doOnCompleted(() -> LOG.debug("completely processed GDM data import for data model '{}'", dataModelId));
+	}
+
+	/**
+	 * @return true, if the record batch could be uploaded (within the given number of retries)
+	 */
+	private Observable<Boolean> importRecordBatch(final String dataModelId,
+	                                              final String writeDataModelContentRequestJSONString,
+	                                              final int recordBatchNumber,
+	                                              final byte[] recordBatch,
+	                                              final int retries) {
+
+		return Observable.defer(() -> {
+
+			final MultiPart multiPart = new MultiPart()
+					.bodyPart(writeDataModelContentRequestJSONString, MediaType.APPLICATION_JSON_TYPE)
+					.bodyPart(recordBatch, MediaType.APPLICATION_OCTET_STREAM_TYPE);
+
+			return executeWriteDataModelContentRequest(multiPart)
+					.map(response -> {
+
+						final int status = response.getStatus();
+
+						if (status != 200) {
+
+							final String message = String.format("Couldn't store record batch '%s' of data model '%s' into database. Received status code '%s' from database endpoint (response body = '%s').",
+									recordBatchNumber, dataModelId, status, response.readEntity(String.class));
+
+							throw DswarmToolsError.wrap(new DswarmToolsException(message));
+						}
+
+						closeResponse(response);
+
+						LOG.debug("wrote record batch '{}' of data model '{}' into data hub", recordBatchNumber, dataModelId);
+
+						return true;
+					})
+					.doOnError(throwable -> LOG.warn("upload of record batch '{}' of data model '{}' failed", recordBatchNumber, dataModelId, throwable))
+					.doAfterTerminate(() -> {
+
+						try {
+
+							closeResource(multiPart, WRITE_GDM);
+						} catch (final DswarmToolsException e) {
+
+							LOG.error("couldn't close resources of record batch '{}' of data model '{}' content import", recordBatchNumber, dataModelId, e);
+						}
+					});
+		})
+				.retry(retries)
+				// isolate the failure of this record batch upload from the other ones
+				.onErrorReturn(throwable -> false);
+	}
+
+	private static RecordBatchIterator openRecordBatches(final Path dataModelContentJSONFile, final int batchSize, final Optional<String> optionalChecksum) {
+
+		try {
+
+			return new RecordBatchIterator(ImportFile.of(dataModelContentJSONFile), batchSize, optionalChecksum);
+		} catch (final IOException e) {
+
+			final String message = String.format("couldn't open content file '%s' for splitting it into record batches", dataModelContentJSONFile);
+
+			LOG.error(message, e);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+		}
+	}
+
+	/**
+	 * POSTs the given multipart (write request metadata + data model content) to the write data model content endpoint via chunked
+	 * transfer encoding (in chunks of the upload chunk size).
+	 */
+	private Observable<Response> executeWriteDataModelContentRequest(final MultiPart multiPart) {
+
+		final RxWebTarget<RxObservableInvoker> rxWebTarget = rxWebTarget(WRITE_DATA_MODEL_CONTENT_ENDPOINT);
+
+		// a request property (unlike a target property) doesn't create a new client runtime (incl. HTTP connector) per upload
+		final RxInvocationBuilder<RxObservableInvoker> request = rxWebTarget.request(MULTIPART_MIXED)
+				.property(ClientProperties.CHUNKED_ENCODING_SIZE, config.getUploadChunkSize());
+
+		// the Apache HTTP client sets the transfer encoding header itself (and rejects requests that contain it already)
+		if (config.getHttpConnector() != HttpConnector.POOLED) {
+
+			request.header(HttpHeaders.TRANSFER_ENCODING, CHUNKED_TRANSFER_ENCODING);
+		}
+
+		final RxObservableInvoker rx = request.rx();
+
+		// POST the request
+		final Entity<MultiPart> entity = Entity.entity(multiPart, MULTIPART_MIXED);
+
+		return rx.post(entity).observeOn(importScheduler);
 	}
 
 	private Observable<Tuple2<String, String>> executePOSTRequest(final Tuple2<String, String> requestTuple,
@@ -171,6 +479,28 @@ public final class DswarmGraphExtensionAPIClient extends AbstractAPIClient {
 	                                                             final String type,
 	                                                             final Scheduler scheduler) {
 
+		final String dataModelId = requestTuple._1;
+
+		return executePOSTRequest(requestTuple, requestURI, scheduler)
+				.map(response -> response.readEntity(String.class))
+				.map(dataModelGDMJSONString -> getObjectsJSON(dataModelId, dataModelGDMJSONString))
+				.map(dataModelContentJSON -> serializeObjectJSON(dataModelId, dataModelContentJSON));
+	}
+
+	private Observable<Tuple2<String, InputStream>> executeStreamingPOSTRequest(final Tuple2<String, String> requestTuple,
+	                                                                           final String requestURI,
+	                                                                           final Scheduler scheduler) {
+
+		final String dataModelId = requestTuple._1;
+
+		return executePOSTRequest(requestTuple, requestURI, scheduler)
+				.map(response -> Tuple.of(dataModelId, response.readEntity(InputStream.class)));
+	}
+
+	private Observable<Response> executePOSTRequest(final Tuple2<String, String> requestTuple,
+	                                                final String requestURI,
+	                                                final Scheduler scheduler) {
+
 		final String dataModelId = requestTuple._1;
 		final String requestJSONString = requestTuple._2;
 
@@ -190,6 +520,8 @@ public final class DswarmGraphExtensionAPIClient extends AbstractAPIClient {
 
 						LOG.error("could not retrieve content of data model '{}' (got response status = '{}')", dataModelId, responseStatus);
 
+						closeResponse(response);
+
 						return false;
 					}
 
@@ -197,10 +529,24 @@ public final class DswarmGraphExtensionAPIClient extends AbstractAPIClient {
 
 					return true;
 				})
-				.filter(Response::hasEntity)
-				.map(response -> response.readEntity(String.class))
-				.map(dataModelGDMJSONString -> getObjectsJSON(dataModelId, dataModelGDMJSONString))
-				.map(dataModelContentJSON -> serializeObjectJSON(dataModelId, dataModelContentJSON));
+				.filter(Response::hasEntity);
+	}
+
+	private static void logUploadThroughput(final String dataModelId, final FileStreamingOutput uploadEntity) {
+
+		logUploadThroughput(dataModelId, uploadEntity.getBytesWritten(), uploadEntity.getStartTime());
+	}
+
+	private static void logUploadThroughput(final String dataModelId, final long uploadedBytes, final long startTime) {
+
+		final long uploadDurationInNanos = System.nanoTime() - startTime;
+
+		final double uploadedMB = uploadedBytes / (double) BYTES_PER_MB;
+		final double uploadDurationInSeconds = uploadDurationInNanos / (double) TimeUnit.SECONDS.toNanos(1);
+		final double throughput = uploadDurationInSeconds > 0 ? uploadedMB / uploadDurationInSeconds : 0;
+
+		LOG.info("uploaded '{}' MB of content of data model '{}' in '{}' ms ('{}' MB/s)",
+				String.format("%.2f", uploadedMB), dataModelId, TimeUnit.NANOSECONDS.toMillis(uploadDurationInNanos), String.format("%.2f", throughput));
 	}
 
 	private static void closeResource(final Closeable closeable, final String type) throws DswarmToolsException {
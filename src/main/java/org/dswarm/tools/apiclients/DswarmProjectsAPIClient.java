@@ -15,13 +15,18 @@
  */
 package org.dswarm.tools.apiclients;
 
+import java.util.Optional;
+
 import javaslang.Tuple2;
+import javaslang.Tuple3;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
 
 
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.DswarmToolsStatics;
+import org.dswarm.tools.utils.ImportFile;
 
 /**
  * @author tgaengler
@@ -33,13 +38,13 @@ public final class DswarmProjectsAPIClient extends AbstractDswarmBackendAPIClien
 	private static final String ROBUST_IDENTIFIER = "robust";
 	private final String ROBUST_IMPORT_PROJECT_ENDPOINT = String.format("%s%s%s", OBJECTS_IDENTIFIER, SLASH, ROBUST_IDENTIFIER);
 
-	public DswarmProjectsAPIClient(final String dswarmBackendAPIBaseURI) {
+	public DswarmProjectsAPIClient(final String dswarmBackendAPIBaseURI, final DswarmToolsConfig config) {
 
-		super(dswarmBackendAPIBaseURI, DswarmToolsStatics.PROJECT);
+		super(dswarmBackendAPIBaseURI, DswarmToolsStatics.PROJECT, config);
 	}
 
 	@Override
-	public Observable<Tuple2<String, String>> importObjects(final Observable<Tuple2<String, String>> objectDescriptionTupleObservable) {
+	public Observable<Tuple2<String, String>> importObjects(final Observable<Tuple3<String, ImportFile, Optional<String>>> objectDescriptionTupleObservable) {
 
 		// TODO: this is just a workaround to process the request serially (i.e. one after another) until the processing at the endpoint is fixed (i.e. also prepared for parallel requests)
 		return objectDescriptionTupleObservable.flatMap(this::importObject, 1);
@@ -0,0 +1,259 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.apiclients;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+
+import org.dswarm.tools.DswarmToolsStatics;
+import org.dswarm.tools.utils.Compression;
+import org.dswarm.tools.utils.DswarmToolUtils;
+import org.dswarm.tools.utils.ExportFormat;
+import org.dswarm.tools.utils.ExportManifest;
+import org.dswarm.tools.utils.ImportFile;
+
+/**
+ * Streams the content of a file via a {@link FileChannel} in (large) chunks of the given size into the request entity stream (the
+ * content of an object of a packed archive is streamed from its memory-mapped slice). Compressed files (detected by file extension)
+ * are decompressed and binary or NDJSON files are converted into JSON while streaming. The file is only opened, when the entity is
+ * written, and closed afterwards. Keeps track of the number of written (uncompressed) bytes and the point in time, when the
+ * writing started (to be able to calculate the upload throughput). If an expected checksum (CRC32C, e.g. from the export manifest)
+ * is given, the checksum of the file is calculated while streaming and a mismatch aborts the request (i.e. the entity is not
+ * completed).
+ *
+ * @author tgaengler
+ */
+final class FileStreamingOutput implements StreamingOutput {
+
+	private final ImportFile file;
+	private final int chunkSize;
+	private final Optional<String> optionalExpectedChecksum;
+
+	private volatile long bytesWritten = 0;
+	private volatile long startTime = 0;
+
+	FileStreamingOutput(final Path fileArg, final int chunkSizeArg, final Optional<String> optionalExpectedChecksumArg) {
+
+		this(ImportFile.of(fileArg), chunkSizeArg, optionalExpectedChecksumArg);
+	}
+
+	FileStreamingOutput(final ImportFile fileArg, final int chunkSizeArg, final Optional<String> optionalExpectedChecksumArg) {
+
+		file = fileArg;
+		chunkSize = chunkSizeArg;
+		optionalExpectedChecksum = optionalExpectedChecksumArg;
+	}
+
+	@Override
+	public void write(final OutputStream output) throws IOException {
+
+		startTime = System.nanoTime();
+
+		if (ExportFormat.detect(file.getFileName()) != ExportFormat.JSON) {
+
+			writeConverted(output);
+
+			return;
+		}
+
+		if (Compression.detect(file.getFileName()) != Compression.NONE) {
+
+			writeDecompressed(output);
+
+			return;
+		}
+
+		final Optional<ByteBuffer> optionalContent = file.getContent();
+
+		if (optionalContent.isPresent()) {
+
+			writeContent(optionalContent.get(), output);
+
+			return;
+		}
+
+		final Hasher hasher = ExportManifest.CHECKSUM_FUNCTION.newHasher();
+
+		try (final FileChannel fileChannel = FileChannel.open(file.getFile().get(), StandardOpenOption.READ)) {
+
+			final ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+
+			while (fileChannel.read(buffer) != -1) {
+
+				// note: the casts keep the (Java 8) method signatures, if this is compiled with a newer JDK
+				((Buffer) buffer).flip();
+
+				if (optionalExpectedChecksum.isPresent()) {
+
+					hasher.putBytes(buffer.array(), 0, buffer.limit());
+				}
+
+				output.write(buffer.array(), 0, buffer.limit());
+
+				bytesWritten += buffer.limit();
+
+				((Buffer) buffer).clear();
+			}
+		}
+
+		verifyChecksum(hasher.hash());
+
+		output.flush();
+	}
+
+	/**
+	 * streams the given (memory-mapped) content in chunks of the given size
+	 */
+	private void writeContent(final ByteBuffer content, final OutputStream output) throws IOException {
+
+		final Hasher hasher = ExportManifest.CHECKSUM_FUNCTION.newHasher();
+		final byte[] buffer = new byte[Math.min(chunkSize, content.remaining())];
+
+		while (content.hasRemaining()) {
+
+			final int length = Math.min(buffer.length, content.remaining());
+
+			content.get(buffer, 0, length);
+
+			if (optionalExpectedChecksum.isPresent()) {
+
+				hasher.putBytes(buffer, 0, length);
+			}
+
+			output.write(buffer, 0, length);
+
+			bytesWritten += length;
+		}
+
+		verifyChecksum(hasher.hash());
+
+		output.flush();
+	}
+
+	private void writeDecompressed(final OutputStream output) throws IOException {
+
+		try (final HashingInputStream fileInputStream = newFileInputStream();
+		     final InputStream inputStream = Compression.detect(file.getFileName()).wrap(fileInputStream)) {
+
+			final byte[] buffer = new byte[chunkSize];
+
+			int bytesRead;
+
+			while ((bytesRead = inputStream.read(buffer)) != -1) {
+
+				output.write(buffer, 0, bytesRead);
+
+				bytesWritten += bytesRead;
+			}
+
+			verifyChecksum(fileInputStream);
+		}
+
+		output.flush();
+	}
+
+	private void writeConverted(final OutputStream output) throws IOException {
+
+		final ExportFormat format = ExportFormat.detect(file.getFileName());
+		final CountingOutputStream countingOutput = new CountingOutputStream(output);
+
+		try (final HashingInputStream fileInputStream = newFileInputStream();
+		     final InputStream inputStream = Compression.detect(file.getFileName()).wrap(fileInputStream);
+		     final JsonParser parser = format.createParser(inputStream);
+		     final JsonGenerator generator = DswarmToolsStatics.MAPPER.getFactory().createGenerator(countingOutput, JsonEncoding.UTF8)) {
+
+			// the file stream is still needed for verifying the checksum, when the parser reached the end of the content
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			// the entity stream is closed by the HTTP client
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+			DswarmToolUtils.copyToJSON(parser, format, generator);
+
+			verifyChecksum(fileInputStream);
+		} finally {
+
+			bytesWritten = countingOutput.getCount();
+		}
+
+		output.flush();
+	}
+
+	/**
+	 * @return a stream of the raw (i.e. still compressed) file content that calculates the checksum of the read bytes
+	 */
+	private HashingInputStream newFileInputStream() throws IOException {
+
+		return new HashingInputStream(ExportManifest.CHECKSUM_FUNCTION, file.openStream());
+	}
+
+	private void verifyChecksum(final HashingInputStream fileInputStream) throws IOException {
+
+		if (!optionalExpectedChecksum.isPresent()) {
+
+			return;
+		}
+
+		// the decompressor or the parser doesn't need to consume the file completely (e.g. trailing whitespace)
+		ByteStreams.exhaust(fileInputStream);
+
+		verifyChecksum(fileInputStream.hash());
+	}
+
+	private void verifyChecksum(final HashCode checksum) throws IOException {
+
+		verifyChecksum(file, checksum, optionalExpectedChecksum);
+	}
+
+	/**
+	 * @throws IOException if the given checksum doesn't match the given expected checksum (if any)
+	 */
+	static void verifyChecksum(final ImportFile file, final HashCode checksum, final Optional<String> optionalExpectedChecksum) throws IOException {
+
+		if (optionalExpectedChecksum.isPresent() && !optionalExpectedChecksum.get().equals(checksum.toString())) {
+
+			throw new IOException(String.format("checksum (CRC32C) of file '%s' is '%s', but the export manifest expects '%s' - file seems to be corrupted",
+					file, checksum, optionalExpectedChecksum.get()));
+		}
+	}
+
+	long getBytesWritten() {
+
+		return bytesWritten;
+	}
+
+	long getStartTime() {
+
+		return startTime;
+	}
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.apiclients;
+
+/**
+ * The HTTP connector (transport) of the (shared) Jersey client that executes the requests against the d:swarm backend and the d:swarm
+ * graph extension.
+ *
+ * @author tgaengler
+ */
+public enum HttpConnector {
+
+	/**
+	 * the default connector of the Jersey client ({@link java.net.HttpURLConnection}), i.e., keep-alive connections are only re-used
+	 * via the (JVM-wide, small) keep-alive cache
+	 */
+	URL_CONNECTION,
+
+	/**
+	 * the Apache HTTP client connector with a pool of keep-alive connections (sized to the configured concurrency), per-host limits
+	 * and tunable socket buffers
+	 */
+	POOLED,
+
+	/**
+	 * the non-blocking (NIO) connector of the Grizzly async HTTP client, i.e., no thread is parked while a request is in flight (a few
+	 * I/O threads drive all requests; the response entities are fed into non-blocking input streams)
+	 */
+	NON_BLOCKING
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.apiclients;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.OptionalLong;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.tools.utils.DswarmToolUtils;
+
+/**
+ * The content of a data model that is retrieved page by page (i.e. in windows of the given number of records) as one JSON array,
+ * i.e., the records of all pages are concatenated into a single top-level array. The next page is only requested, when the current
+ * one is consumed, i.e., at most one page is held in memory (and needs to be materialised by the d:swarm graph extension) at a time.
+ * A page with less records than the page size is the last one.
+ *
+ * @author tgaengler
+ */
+final class PagedContentInputStream extends InputStream {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PagedContentInputStream.class);
+
+	private static final byte[] ARRAY_START = "[".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] ARRAY_END = "]".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] RECORD_SEPARATOR = ",".getBytes(StandardCharsets.UTF_8);
+
+	/**
+	 * retrieves a page of the content of a data model
+	 */
+	@FunctionalInterface
+	interface PageReader {
+
+		/**
+		 * @param offset   the number of records that should be skipped
+		 * @param pageSize the maximum number of records of the page
+		 * @return the records of the page (JSON array)
+		 * @throws IOException
+		 */
+		byte[] readPage(final long offset, final int pageSize) throws IOException;
+	}
+
+	private final String dataModelId;
+	private final int pageSize;
+	private final PageReader pageReader;
+
+	private InputStream currentPart = new ByteArrayInputStream(ARRAY_START);
+	private long recordCount = 0;
+	private int pageCount = 0;
+	private HashCode lastPageChecksum;
+	private boolean lastPage = false;
+	private boolean completed = false;
+
+	PagedContentInputStream(final String dataModelIdArg, final int pageSizeArg, final PageReader pageReaderArg) {
+
+		dataModelId = dataModelIdArg;
+		pageSize = pageSizeArg;
+		pageReader = pageReaderArg;
+	}
+
+	@Override
+	public int read() throws IOException {
+
+		do {
+
+			final int b = currentPart.read();
+
+			if (b != -1) {
+
+				return b;
+			}
+		} while (nextPart());
+
+		return -1;
+	}
+
+	@Override
+	public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+
+		if (length == 0) {
+
+			return 0;
+		}
+
+		do {
+
+			final int bytesRead = currentPart.read(bytes, offset, length);
+
+			if (bytesRead > 0) {
+
+				return bytesRead;
+			}
+		} while (nextPart());
+
+		return -1;
+	}
+
+	/**
+	 * @return false, if the content is read completely
+	 * @throws IOException
+	 */
+	private boolean nextPart() throws IOException {
+
+		if (completed) {
+
+			return false;
+		}
+
+		if (lastPage) {
+
+			LOG.info("retrieved '{}' records of data model '{}' in '{}' pages (of '{}' records)", recordCount, dataModelId, pageCount, pageSize);
+
+			currentPart = new ByteArrayInputStream(ARRAY_END);
+			completed = true;
+
+			return true;
+		}
+
+		final byte[] page = pageReader.readPage(recordCount, pageSize);
+		final OptionalLong optionalPageRecordCount = DswarmToolUtils.countRecords(page);
+
+		if (!optionalPageRecordCount.isPresent()) {
+
+			throw new IOException(String.format("page '%s' of the content of data model '%s' is no JSON array", pageCount + 1, dataModelId));
+		}
+
+		final long pageRecordCount = optionalPageRecordCount.getAsLong();
+		final HashCode pageChecksum = Hashing.crc32c().hashBytes(page);
+
+		// protect against endless paging, i.e., if the d:swarm graph extension doesn't support paged read requests
+		if (pageRecordCount > pageSize || (pageRecordCount > 0 && pageChecksum.equals(lastPageChecksum))) {
+
+			throw new IOException(String.format("page '%s' of the content of data model '%s' doesn't fit to the requested record window (offset = '%s', at most = '%s'), i.e., the d:swarm graph extension doesn't seem to support paged read requests",
+					pageCount + 1, dataModelId, recordCount, pageSize));
+		}
+
+		LOG.debug("retrieved page '{}' ('{}' records) of data model '{}'", pageCount + 1, pageRecordCount, dataModelId);
+
+		// the records of the page without the enclosing array brackets
+		final int pageRecordsStart = indexOf(page, '[') + 1;
+		final int pageRecordsEnd = pageRecordCount > 0 ? lastIndexOf(page, ']') : pageRecordsStart;
+		final InputStream pageRecords = new ByteArrayInputStream(page, pageRecordsStart, pageRecordsEnd - pageRecordsStart);
+
+		currentPart = recordCount > 0 && pageRecordCount > 0 ? new SequenceInputStream(new ByteArrayInputStream(RECORD_SEPARATOR), pageRecords) : pageRecords;
+		recordCount += pageRecordCount;
+		pageCount++;
+		lastPageChecksum = pageChecksum;
+		lastPage = pageRecordCount < pageSize;
+
+		return true;
+	}
+
+	private static int indexOf(final byte[] bytes, final char c) {
+
+		for (int i = 0; i < bytes.length; i++) {
+
+			if (bytes[i] == c) {
+
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	private static int lastIndexOf(final byte[] bytes, final char c) {
+
+		for (int i = bytes.length - 1; i >= 0; i--) {
+
+			if (bytes[i] == c) {
+
+				return i;
+			}
+		}
+
+		return -1;
+	}
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.apiclients;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
+
+import org.dswarm.tools.DswarmToolsError;
+import org.dswarm.tools.DswarmToolsException;
+import org.dswarm.tools.DswarmToolsStatics;
+import org.dswarm.tools.utils.Compression;
+import org.dswarm.tools.utils.ExportFormat;
+import org.dswarm.tools.utils.ExportManifest;
+import org.dswarm.tools.utils.ImportFile;
+
+/**
+ * Splits the content (records) of a data model content file (any export format, optionally compressed) into batches of the given
+ * number of records, i.e., each batch is a JSON array of records. The file is parsed while iterating, i.e., only the current batch is
+ * held in memory. If an expected checksum (CRC32C) is given, the checksum of the file is verified, before the first batch is read,
+ * i.e., no batch of a corrupted file is uploaded (at the cost of reading the file twice).
+ *
+ * @author tgaengler
+ */
+final class RecordBatchIterator implements Iterator<byte[]>, Closeable {
+
+	private final ImportFile file;
+	private final int batchSize;
+	private final ExportFormat format;
+
+	private final InputStream fileInputStream;
+	private final JsonParser parser;
+
+	/**
+	 * true, if the parser is located at the start of a record
+	 */
+	private boolean recordAvailable;
+
+	RecordBatchIterator(final ImportFile fileArg, final int batchSizeArg, final Optional<String> optionalExpectedChecksum) throws IOException {
+
+		file = fileArg;
+		batchSize = batchSizeArg;
+		format = ExportFormat.detect(file.getFileName());
+
+		if (optionalExpectedChecksum.isPresent()) {
+
+			verifyChecksum(file, optionalExpectedChecksum);
+		}
+
+		fileInputStream = file.openStream();
+
+		try {
+
+			parser = format.createParser(Compression.detect(file.getFileName()).wrap(fileInputStream));
+		} catch (final IOException e) {
+
+			fileInputStream.close();
+
+			throw e;
+		}
+
+		try {
+
+			if (format != ExportFormat.NDJSON && parser.nextToken() != JsonToken.START_ARRAY) {
+
+				throw new IOException(String.format("content of file '%s' is no JSON array - cannot split it into record batches", file));
+			}
+
+			nextRecord();
+		} catch (final IOException e) {
+
+			close();
+
+			throw e;
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+
+		return recordAvailable;
+	}
+
+	/**
+	 * @return the next batch of records (as JSON array)
+	 */
+	@Override
+	public byte[] next() {
+
+		if (!recordAvailable) {
+
+			throw new NoSuchElementException();
+		}
+
+		try {
+
+			final ByteArrayOutputStream batchOutputStream = new ByteArrayOutputStream();
+
+			try (final JsonGenerator generator = DswarmToolsStatics.MAPPER.getFactory().createGenerator(batchOutputStream, JsonEncoding.UTF8)) {
+
+				generator.writeStartArray();
+
+				for (int i = 0; i < batchSize && recordAvailable; i++) {
+
+					generator.copyCurrentStructure(parser);
+
+					nextRecord();
+				}
+
+				generator.writeEndArray();
+			}
+
+			return batchOutputStream.toByteArray();
+		} catch (final IOException e) {
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(String.format("something went wrong, while trying to read the next record batch from file '%s'", file), e));
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		try {
+
+			parser.close();
+		} finally {
+
+			fileInputStream.close();
+		}
+	}
+
+	private void nextRecord() throws IOException {
+
+		final JsonToken token = parser.nextToken();
+
+		recordAvailable = token != null && token != JsonToken.END_ARRAY;
+	}
+
+	private static void verifyChecksum(final ImportFile file, final Optional<String> optionalExpectedChecksum) throws IOException {
+
+		try (final HashingInputStream hashingInputStream = new HashingInputStream(ExportManifest.CHECKSUM_FUNCTION, file.openStream())) {
+
+			ByteStreams.exhaust(hashingInputStream);
+
+			FileStreamingOutput.verifyChecksum(file, hashingInputStream.hash(), optionalExpectedChecksum);
+		}
+	}
+}
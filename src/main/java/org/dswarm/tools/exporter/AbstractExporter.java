@@ -15,17 +15,40 @@
  */
 package org.dswarm.tools.exporter;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.CountingInputStream;
+import javaslang.Tuple;
 import javaslang.Tuple2;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
 import rx.Scheduler;
 
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.DswarmToolsError;
 import org.dswarm.tools.DswarmToolsException;
 import org.dswarm.tools.utils.DswarmToolUtils;
+import org.dswarm.tools.utils.ExportFormat;
+import org.dswarm.tools.utils.ExportManifest;
+import org.dswarm.tools.utils.PackedArchive;
+import org.dswarm.tools.utils.PackedArchiveWriter;
+import org.dswarm.tools.utils.RecordOffsets;
 import org.dswarm.tools.utils.RxUtils;
 
 /**
@@ -35,29 +58,161 @@ public abstract class AbstractExporter<APICLIENT> {
 
 	private static final Logger LOG = LoggerFactory.getLogger(AbstractExporter.class);
 
+	private static final HashFunction HASH_FUNCTION = Hashing.sha256();
+
 	protected final String objectName;
 	protected final Scheduler scheduler;
+	protected final DswarmToolsConfig config;
 
 
 	protected final APICLIENT apiClient;
 
-	public AbstractExporter(final APICLIENT apiClientArg, final String objectNameArg) {
+	/**
+	 * export directory name -> manifest of the export into this directory
+	 */
+	private final ConcurrentMap<String, ExportManifest> manifests = new ConcurrentHashMap<>();
+
+	/**
+	 * export directory name -> packed archive of the export into this directory (only utilised for packed exports)
+	 */
+	private final ConcurrentMap<String, PackedArchiveWriter> packedArchives = new ConcurrentHashMap<>();
+
+	/**
+	 * true, if the export files should be appended to a packed archive (instead of being written as separate files)
+	 */
+	private final boolean packed;
+
+	/**
+	 * true, if only new or changed objects should be (re-)written (not possible for packed exports, since the packed archive is
+	 * rewritten completely)
+	 */
+	private final boolean incremental;
+
+	/**
+	 * the content-addressed export store (null, if the export files should be written directly into the export directory)
+	 */
+	private final ContentAddressedExportStore store;
+
+	public AbstractExporter(final APICLIENT apiClientArg, final String objectNameArg, final DswarmToolsConfig configArg) {
 
 		apiClient = apiClientArg;
 		objectName = objectNameArg;
+		config = configArg;
 		scheduler = RxUtils.getObjectWriterScheduler(objectName);
+		packed = config.isPackedExport() && isPackingSupported();
+
+		if (config.isPackedExport() && !packed) {
+
+			LOG.warn("packed export is not supported for {}s - the export files will be written as separate files", objectName);
+		}
+
+		if (packed && (config.isIncrementalExport() || config.getExportStoreDirectoryName().isPresent())) {
+
+			LOG.warn("incremental export and content-addressed export store are not supported for packed exports - both will be ignored");
+		}
+
+		incremental = config.isIncrementalExport() && !packed;
+		store = packed ? null : config.getExportStoreDirectoryName().map(this::openStore).orElse(null);
 	}
 
 	public Observable<String> exportObjects(final String exportDirectoryName) {
 
-		return fetchObjects()
-				.observeOn(scheduler)
-				// 3. store each object in a separate file
-				.map(projectDescription -> writeExportObjectToFile(exportDirectoryName, projectDescription));
+		return writeExportObjectsToFiles(exportDirectoryName, fetchObjects());
 	}
 
 	protected abstract Observable<Tuple2<String, String>> fetchObjects();
 
+	/**
+	 * stores each object in a separate file (with a bounded number of parallel writes)
+	 *
+	 * @param exportDirectoryName     the export directory
+	 * @param objectDescriptionTuples v1 = object identifier; v2 = object description (JSON)
+	 * @return the object descriptions (JSON)
+	 */
+	protected Observable<String> writeExportObjectsToFiles(final String exportDirectoryName, final Observable<Tuple2<String, String>> objectDescriptionTuples) {
+
+		return Observable.defer(() -> {
+
+			prepareExport(exportDirectoryName);
+
+			return objectDescriptionTuples
+					.flatMap(objectDescription -> Observable.fromCallable(() -> writeExportObjectToFile(exportDirectoryName, objectDescription))
+							.subscribeOn(scheduler), config.getWritingConcurrency())
+					.doOnCompleted(() -> completeExport(exportDirectoryName));
+		});
+	}
+
+	/**
+	 * removes the packed archive of an earlier (packed) export from the export directory, if the export files are written as separate
+	 * files (otherwise, the stale archive would be imported instead of them); the packed archive of a packed export is replaced by the
+	 * packed archive writer
+	 *
+	 * @param exportDirectoryName the export directory
+	 */
+	protected void prepareExport(final String exportDirectoryName) {
+
+		if (packed) {
+
+			return;
+		}
+
+		try {
+
+			if (PackedArchive.delete(Paths.get(exportDirectoryName), objectName)) {
+
+				LOG.info("removed the packed {} archive of an earlier export from folder '{}'", objectName, exportDirectoryName);
+			}
+		} catch (final IOException e) {
+
+			final String message = String.format("something went wrong, while trying to remove the packed %s archive of an earlier export from folder '%s'", objectName, exportDirectoryName);
+
+			LOG.error(message, e);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+		}
+	}
+
+	/**
+	 * completes the packed archive (if enabled), stores the export manifest (without the entries of objects that weren't exported by
+	 * this export) and logs the statistics of the incremental export and of the content-addressed export store (if enabled)
+	 *
+	 * @param exportDirectoryName the export directory
+	 */
+	protected void completeExport(final String exportDirectoryName) {
+
+		if (store != null) {
+
+			store.logSummary(objectName);
+		}
+
+		final ExportManifest manifest = getManifest(exportDirectoryName);
+
+		if (incremental) {
+
+			manifest.logIncrementalExportSummary();
+		}
+
+		try {
+
+			final PackedArchiveWriter packedArchive = packedArchives.remove(exportDirectoryName);
+
+			if (packedArchive != null) {
+
+				packedArchive.close();
+			}
+
+			manifest.removeStaleEntries();
+			manifest.save();
+		} catch (final IOException e) {
+
+			final String message = String.format("something went wrong, while trying to write the %s export manifest in folder '%s'", objectName, exportDirectoryName);
+
+			LOG.error(message, e);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+		}
+	}
+
 	protected String writeExportObjectToFile(final String exportDirectoryName, final Tuple2<String, String> objectDescription) {
 
 		final String objectIdentifier = objectDescription._1;
@@ -69,7 +224,61 @@ public abstract class AbstractExporter<APICLIENT> {
 
 		try {
 
-			DswarmToolUtils.writeToFile(objectDescriptionJSONString, exportDirectoryName, fileName);
+			final byte[] objectDescriptionJSONBytes = objectDescriptionJSONString.getBytes(StandardCharsets.UTF_8);
+			final String hash = isHashingRequired() ? HASH_FUNCTION.hashBytes(objectDescriptionJSONBytes).toString() : null;
+
+			if (hash != null && isUnchanged(exportDirectoryName, objectIdentifier, fileName, hash, objectDescriptionJSONBytes.length)) {
+
+				return objectDescriptionJSONString;
+			}
+
+			final OptionalLong recordCount = DswarmToolUtils.countRecords(objectDescriptionJSONString);
+
+			if (packed) {
+
+				// serialize (and compress) the object in parallel, the appending to the packed archive is serialized
+				final ByteArrayOutputStream contentOutputStream = new ByteArrayOutputStream();
+
+				DswarmToolUtils.write(objectDescriptionJSONString, contentOutputStream, getExportFormat(), config.getExportCompression());
+
+				final byte[] content = contentOutputStream.toByteArray();
+
+				getPackedArchive(exportDirectoryName).append(objectIdentifier, fileName, content);
+
+				recordWrite(exportDirectoryName, objectIdentifier, fileName, null, objectDescriptionJSONBytes.length, content.length,
+						ExportManifest.CHECKSUM_FUNCTION.hashBytes(content).toString(), recordCount);
+
+				return objectDescriptionJSONString;
+			}
+
+			// the checksum (and the record offsets index) is calculated while writing (the content writer isn't called, if the content
+			// is already stored)
+			final AtomicReference<Tuple2<Path, String>> writtenFile = new AtomicReference<>();
+
+			final ContentAddressedExportStore.ContentWriter contentWriter = file -> writtenFile.set(Tuple.of(file, DswarmToolUtils
+					.writeToFile(objectDescriptionJSONString, file.getParent().toString(), file.getFileName().toString(), getExportFormat(), config.getExportCompression())));
+
+			final Path exportFile = Paths.get(exportDirectoryName, fileName);
+
+			try {
+
+				if (store != null) {
+
+					store.link(store.put(hash, buildFileExtension(), contentWriter), exportFile);
+				} else {
+
+					contentWriter.write(exportFile);
+				}
+
+				recordWrite(exportDirectoryName, objectIdentifier, fileName, hash, objectDescriptionJSONBytes.length, recordCount, Optional.ofNullable(writtenFile.get()));
+			} finally {
+
+				// the record offsets index of a stored file is written into the temporary directory of the store
+				if (writtenFile.get() != null && !writtenFile.get()._1.equals(exportFile)) {
+
+					Files.deleteIfExists(RecordOffsets.getFile(writtenFile.get()._1));
+				}
+			}
 
 			LOG.debug("exported (wrote) full {} description for {} '{}' to file '{}/{}'", objectName, objectName, objectIdentifier, exportDirectoryName, fileName);
 
@@ -84,8 +293,297 @@ public abstract class AbstractExporter<APICLIENT> {
 		}
 	}
 
+	/**
+	 * @param exportDirectoryName the export directory
+	 * @param objectContentStream v1 = object identifier; v2 = object content stream
+	 * @return the object identifier
+	 */
+	protected String writeExportObjectStreamToFile(final String exportDirectoryName, final Tuple2<String, InputStream> objectContentStream) {
+
+		final String objectIdentifier = objectContentStream._1;
+		final InputStream objectContentJSONStream = objectContentStream._2;
+
+		final String fileName = buildFileName(objectIdentifier);
+
+		LOG.debug("trying to export (stream) {} content for {} '{}' to file '{}/{}'", objectName, objectName, objectIdentifier, exportDirectoryName, fileName);
+
+		try {
+
+			if (isHashingRequired()) {
+
+				writeHashedExportObjectStreamToFile(exportDirectoryName, objectIdentifier, objectContentJSONStream, fileName);
+			} else {
+
+				final CountingInputStream countingStream = new CountingInputStream(objectContentJSONStream);
+
+				final Tuple2<OptionalLong, String> writeResult = DswarmToolUtils
+						.writeToFile(countingStream, exportDirectoryName, fileName, getExportFormat(), config.getExportCompression());
+
+				recordWrite(exportDirectoryName, objectIdentifier, fileName, null, countingStream.getCount(), writeResult._1,
+						Optional.of(Tuple.of(Paths.get(exportDirectoryName, fileName), writeResult._2)));
+			}
+
+			LOG.debug("exported (streamed) {} content for {} '{}' to file '{}/{}'", objectName, objectName, objectIdentifier, exportDirectoryName, fileName);
+
+			return objectIdentifier;
+		} catch (final IOException e) {
+
+			final String message = String.format("something went wrong, while trying to stream %s '%s' into file '%s' in folder '%s'", objectName, objectIdentifier, fileName, exportDirectoryName);
+
+			LOG.error(message, e);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+		}
+	}
+
+	/**
+	 * The content hash is only known after the content stream is consumed completely, i.e., the content is written into a temporary
+	 * file first. This file replaces the export file (or is moved into the content-addressed export store) only, if the content was
+	 * changed (otherwise, the export file stays untouched).
+	 */
+	private void writeHashedExportObjectStreamToFile(final String exportDirectoryName,
+	                                                 final String objectIdentifier,
+	                                                 final InputStream objectContentJSONStream,
+	                                                 final String fileName) throws IOException {
+
+		final CountingInputStream countingStream = new CountingInputStream(objectContentJSONStream);
+		final HashingInputStream hashingStream = new HashingInputStream(HASH_FUNCTION, countingStream);
+
+		final Path temporaryFile = store != null ? store.newTemporaryFile(fileName) : Paths.get(exportDirectoryName, "." + fileName + ".tmp");
+
+		try {
+
+			final Tuple2<OptionalLong, String> writeResult = DswarmToolUtils.writeToFile(hashingStream, temporaryFile.getParent().toString(),
+					temporaryFile.getFileName().toString(), getExportFormat(), config.getExportCompression());
+
+			final String hash = hashingStream.hash().toString();
+
+			if (isUnchanged(exportDirectoryName, objectIdentifier, fileName, hash, countingStream.getCount())) {
+
+				return;
+			}
+
+			final Path exportFile = Paths.get(exportDirectoryName, fileName);
+
+			if (store != null) {
+
+				store.link(store.add(temporaryFile, hash, buildFileExtension()), exportFile);
+			} else {
+
+				Files.move(temporaryFile, exportFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+
+			recordWrite(exportDirectoryName, objectIdentifier, fileName, hash, countingStream.getCount(), writeResult._1,
+					Optional.of(Tuple.of(temporaryFile, writeResult._2)));
+		} finally {
+
+			Files.deleteIfExists(temporaryFile);
+			Files.deleteIfExists(RecordOffsets.getFile(temporaryFile));
+		}
+	}
+
+	/**
+	 * @return true, if the content hash is required (i.e. for an incremental export or a content-addressed export store)
+	 */
+	private boolean isHashingRequired() {
+
+		return incremental || store != null;
+	}
+
+	/**
+	 * @return true, if the object is unchanged since the last incremental export into the given directory (i.e. it can be skipped)
+	 */
+	private boolean isUnchanged(final String exportDirectoryName, final String objectIdentifier, final String fileName, final String hash, final long size) {
+
+		if (!incremental) {
+
+			return false;
+		}
+
+		final ExportManifest manifest = getManifest(exportDirectoryName);
+
+		if (!manifest.isUnchanged(objectIdentifier, fileName, hash)) {
+
+			return false;
+		}
+
+		LOG.debug("skipped export (write) of unchanged {} '{}'", objectName, objectIdentifier);
+
+		manifest.recordSkip(objectIdentifier, size);
+
+		return true;
+	}
+
+	/**
+	 * adds the manifest entry of the given (completely written) export file; for NDJSON, its record offsets index (written next to the
+	 * written file) is moved next to the export file as well
+	 *
+	 * @param optionalWrittenFile v1 = the file the content was written to (i.e. the export file or a temporary file); v2 = the checksum
+	 *                            of this file (both calculated while writing; only empty, if the content was already stored in the
+	 *                            content-addressed export store, i.e., the export file needs to be read once more)
+	 */
+	private void recordWrite(final String exportDirectoryName,
+	                         final String objectIdentifier,
+	                         final String fileName,
+	                         final String hash,
+	                         final long size,
+	                         final OptionalLong recordCount,
+	                         final Optional<Tuple2<Path, String>> optionalWrittenFile) throws IOException {
+
+		final Path exportFile = Paths.get(exportDirectoryName, fileName);
+
+		if (getExportFormat() == ExportFormat.NDJSON) {
+
+			if (!optionalWrittenFile.isPresent()) {
+
+				RecordOffsets.write(exportFile);
+			} else if (!optionalWrittenFile.get()._1.equals(exportFile)) {
+
+				Files.move(RecordOffsets.getFile(optionalWrittenFile.get()._1), RecordOffsets.getFile(exportFile), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+
+		final String checksum = optionalWrittenFile.isPresent() ? optionalWrittenFile.get()._2 : ExportManifest.checksum(exportFile);
+
+		recordWrite(exportDirectoryName, objectIdentifier, fileName, hash, size, Files.size(exportFile), checksum, recordCount);
+	}
+
+	private void recordWrite(final String exportDirectoryName,
+	                         final String objectIdentifier,
+	                         final String fileName,
+	                         final String hash,
+	                         final long size,
+	                         final long fileSize,
+	                         final String checksum,
+	                         final OptionalLong recordCount) {
+
+		final ExportManifest.Entry entry = new ExportManifest.Entry(objectIdentifier,
+				fileName,
+				hash,
+				size,
+				fileSize,
+				checksum,
+				recordCount.isPresent() ? recordCount.getAsLong() : null,
+				findRecordClassURI(objectIdentifier).orElse(null));
+
+		getManifest(exportDirectoryName).recordWrite(entry)
+				.filter(previousEntry -> !fileName.equals(previousEntry.getFileName()))
+				.ifPresent(previousEntry -> deletePreviousExportFile(exportDirectoryName, objectIdentifier, previousEntry.getFileName()));
+	}
+
+	/**
+	 * deletes the export file (and its record offsets index) of the previous export of an object, if the file name changed (e.g. due to
+	 * another export format or compression), i.e., the import directory doesn't contain two export files of an object
+	 */
+	private void deletePreviousExportFile(final String exportDirectoryName, final String objectIdentifier, final String previousFileName) {
+
+		final Path previousExportFile = Paths.get(exportDirectoryName, previousFileName);
+
+		try {
+
+			if (Files.deleteIfExists(previousExportFile)) {
+
+				LOG.debug("deleted previous export file '{}' of {} '{}'", previousExportFile, objectName, objectIdentifier);
+			}
+
+			Files.deleteIfExists(RecordOffsets.getFile(previousExportFile));
+		} catch (final IOException e) {
+
+			final String message = String.format("something went wrong, while trying to delete the previous export file '%s' of %s '%s'", previousExportFile, objectName, objectIdentifier);
+
+			LOG.error(message, e);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+		}
+	}
+
+	private PackedArchiveWriter getPackedArchive(final String exportDirectoryName) {
+
+		return packedArchives.computeIfAbsent(exportDirectoryName, directoryName -> {
+
+			try {
+
+				return new PackedArchiveWriter(directoryName, objectName, config.getPackedExportSegmentSize());
+			} catch (final IOException e) {
+
+				final String message = String.format("something went wrong, while trying to create the packed %s archive in folder '%s'", objectName, directoryName);
+
+				LOG.error(message, e);
+
+				throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+			}
+		});
+	}
+
+	private ExportManifest getManifest(final String exportDirectoryName) {
+
+		return manifests.computeIfAbsent(exportDirectoryName, directoryName -> {
+
+			try {
+
+				return ExportManifest.load(directoryName, objectName);
+			} catch (final IOException e) {
+
+				final String message = String.format("something went wrong, while trying to read the %s export manifest in folder '%s'", objectName, directoryName);
+
+				LOG.error(message, e);
+
+				throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+			}
+		});
+	}
+
+	/**
+	 * @param objectIdentifier the object identifier
+	 * @return the record class URI of the exported object (if available)
+	 */
+	protected Optional<String> findRecordClassURI(final String objectIdentifier) {
+
+		return Optional.empty();
+	}
+
+	/**
+	 * @return true, if the export files of this object type can be packed (default = false; the objects are held in memory before
+	 * they are appended to the packed archive, i.e., packing is only intended for many small objects)
+	 */
+	protected boolean isPackingSupported() {
+
+		return false;
+	}
+
+	/**
+	 * @return the format of the export files (default = JSON)
+	 */
+	protected ExportFormat getExportFormat() {
+
+		return ExportFormat.JSON;
+	}
+
+	private ContentAddressedExportStore openStore(final String storeDirectoryName) {
+
+		try {
+
+			return new ContentAddressedExportStore(storeDirectoryName);
+		} catch (final IOException e) {
+
+			final String message = String.format("something went wrong, while trying to open the content-addressed export store '%s'", storeDirectoryName);
+
+			LOG.error(message, e);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+		}
+	}
+
 	private String buildFileName(final String objectIdentifier) {
 
-		return String.format("%s.%s.json", objectName, objectIdentifier);
+		return String.format("%s.%s%s", objectName, objectIdentifier, buildFileExtension());
+	}
+
+	/**
+	 * @return the extension of the export files (format + compression)
+	 */
+	private String buildFileExtension() {
+
+		return getExportFormat().getFileExtension() + config.getExportCompression().getFileExtension();
 	}
 }
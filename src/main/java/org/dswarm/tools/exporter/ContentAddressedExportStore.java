@@ -0,0 +1,195 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.exporter;
+
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A content-addressed store of export files, i.e., each export file is stored only once as 'objects/[HASH_PREFIX]/[HASH][EXTENSION]'
+ * (hash = content hash of the exported object). The export directory of an export run is a snapshot that consists of hard links to
+ * these files, i.e., identical content (across export runs and across objects) is never written or stored twice. The store and the
+ * export directories need to reside on the same file system.
+ *
+ * @author tgaengler
+ */
+final class ContentAddressedExportStore {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ContentAddressedExportStore.class);
+
+	private static final String OBJECTS_DIRECTORY_NAME = "objects";
+	private static final String TEMPORARY_DIRECTORY_NAME = "tmp";
+	private static final int HASH_PREFIX_LENGTH = 2;
+
+	private static final double BYTES_PER_MB = 1024 * 1024;
+
+	/**
+	 * writes content into the given file
+	 */
+	@FunctionalInterface
+	interface ContentWriter {
+
+		void write(final Path file) throws IOException;
+	}
+
+	private final Path storeDirectory;
+	private final Path objectsDirectory;
+	private final Path temporaryDirectory;
+
+	private final AtomicLong storedObjects = new AtomicLong();
+	private final AtomicLong storedBytes = new AtomicLong();
+	private final AtomicLong deduplicatedObjects = new AtomicLong();
+	private final AtomicLong deduplicatedBytes = new AtomicLong();
+
+	ContentAddressedExportStore(final String storeDirectoryName) throws IOException {
+
+		storeDirectory = Paths.get(storeDirectoryName);
+		objectsDirectory = storeDirectory.resolve(OBJECTS_DIRECTORY_NAME);
+		temporaryDirectory = storeDirectory.resolve(TEMPORARY_DIRECTORY_NAME);
+
+		Files.createDirectories(objectsDirectory);
+		Files.createDirectories(temporaryDirectory);
+	}
+
+	/**
+	 * @param fileName the (export) file name
+	 * @return a new (unique) temporary file in the store, i.e., on the same file system as the stored files
+	 */
+	Path newTemporaryFile(final String fileName) {
+
+		return temporaryDirectory.resolve(UUID.randomUUID() + "-" + fileName);
+	}
+
+	/**
+	 * Stores the content with the given hash, if it is not stored already (otherwise, the content won't be written at all).
+	 *
+	 * @param hash          the content hash
+	 * @param fileExtension the extension of the export file (format + compression)
+	 * @param contentWriter writes the content into a (temporary) file
+	 * @return the stored file
+	 * @throws IOException
+	 */
+	Path put(final String hash, final String fileExtension, final ContentWriter contentWriter) throws IOException {
+
+		final Path storedFile = getStoredFile(hash, fileExtension);
+
+		if (Files.isRegularFile(storedFile)) {
+
+			recordDeduplication(storedFile);
+
+			return storedFile;
+		}
+
+		final Path temporaryFile = newTemporaryFile(storedFile.getFileName().toString());
+
+		try {
+
+			contentWriter.write(temporaryFile);
+
+			return add(temporaryFile, hash, fileExtension);
+		} finally {
+
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	/**
+	 * Moves the given (temporary) file with the given content hash into the store, if this content is not stored already (otherwise,
+	 * the given file will be deleted).
+	 *
+	 * @param temporaryFile a temporary file of this store (see {@link #newTemporaryFile(String)})
+	 * @param hash          the content hash
+	 * @param fileExtension the extension of the export file (format + compression)
+	 * @return the stored file
+	 * @throws IOException
+	 */
+	Path add(final Path temporaryFile, final String hash, final String fileExtension) throws IOException {
+
+		final Path storedFile = getStoredFile(hash, fileExtension);
+
+		if (Files.isRegularFile(storedFile)) {
+
+			Files.delete(temporaryFile);
+
+			recordDeduplication(storedFile);
+
+			return storedFile;
+		}
+
+		Files.createDirectories(storedFile.getParent());
+
+		// note: a parallel export of the same content would just replace the stored file with identical content
+		Files.move(temporaryFile, storedFile, StandardCopyOption.ATOMIC_MOVE);
+
+		storedObjects.incrementAndGet();
+		storedBytes.addAndGet(Files.size(storedFile));
+
+		return storedFile;
+	}
+
+	/**
+	 * (re-)places the given export file as hard link to the given stored file
+	 *
+	 * @param storedFile the stored file
+	 * @param exportFile the export file (snapshot entry)
+	 * @throws IOException
+	 */
+	void link(final Path storedFile, final Path exportFile) throws IOException {
+
+		Files.createDirectories(exportFile.getParent());
+		Files.deleteIfExists(exportFile);
+
+		try {
+
+			Files.createLink(exportFile, storedFile);
+		} catch (final FileSystemException | UnsupportedOperationException e) {
+
+			throw new IOException(String.format("couldn't link export file '%s' to stored file '%s' - export store '%s' and export directory need to reside on the same file system",
+					exportFile, storedFile, storeDirectory), e);
+		}
+	}
+
+	void logSummary(final String objectName) {
+
+		LOG.info("content-addressed {} export store '{}': stored '{}' new files ('{}' MB); linked '{}' already stored files (avoided '{}' MB of writes and storage)",
+				objectName, storeDirectory, storedObjects.get(), formatMB(storedBytes.get()), deduplicatedObjects.get(), formatMB(deduplicatedBytes.get()));
+	}
+
+	private Path getStoredFile(final String hash, final String fileExtension) {
+
+		return objectsDirectory.resolve(hash.substring(0, HASH_PREFIX_LENGTH)).resolve(hash + fileExtension);
+	}
+
+	private void recordDeduplication(final Path storedFile) throws IOException {
+
+		deduplicatedObjects.incrementAndGet();
+		deduplicatedBytes.addAndGet(Files.size(storedFile));
+	}
+
+	private static String formatMB(final long bytes) {
+
+		return String.format("%.2f", bytes / BYTES_PER_MB);
+	}
+}
@@ -26,9 +26,12 @@ import org.slf4j.LoggerFactory;
 import rx.Observable;
 
 import org.dswarm.tools.AbstractExecuter;
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.DswarmToolsStatics;
+import org.dswarm.tools.apiclients.AbstractAPIClient;
 import org.dswarm.tools.apiclients.DswarmProjectsAPIClient;
 import org.dswarm.tools.utils.DswarmToolUtils;
+import org.dswarm.tools.utils.RxUtils;
 
 /**
  * To be able to execute the Data Models content backup via commandline.
@@ -51,7 +54,22 @@ public class DataModelsContentExportExecuter extends AbstractExecuter {
 				.append("following parameters are available for configuration at the moment:").append("\n\n")
 				.append("\t").append(DswarmToolsStatics.DSWARM_BACKEND_API_BASE_URI_PARAMETER).append(" : the d:swarm backend API base URI").append("\n")
 				.append("\t").append(DswarmToolsStatics.DSWARM_GRAPH_EXTENSION_API_BASE_URI_PARAMETER).append(" : the d:swarm graph extension API base URI").append("\n")
-				.append("\t").append(DswarmToolsStatics.EXPORT_DIRECTORY_NAME_PARAMETER).append(" : the name of the export directory (absolute path)").append("\n\n")
+				.append("\t").append(DswarmToolsStatics.EXPORT_DIRECTORY_NAME_PARAMETER).append(" : the name of the export directory (absolute path)").append("\n")
+				.append("\t").append(DswarmToolsStatics.STREAMING_EXPORT_PARAMETER).append(" : stream the data models content straight into the export files, i.e., without holding it in memory (optional; default = true)").append("\n")
+				.append("\t").append(DswarmToolsStatics.EXPORT_PAGE_SIZE_PARAMETER).append(" : the maximum number of records per data model content retrieval request, i.e., the content of each data model is retrieved page by page and streamed into its export file (optional; default = 0, i.e., one retrieval request per data model; implies streaming export)").append("\n")
+				.append("\t").append(DswarmToolsStatics.RETRIEVAL_CONCURRENCY_PARAMETER).append(" : the maximum number of parallel project retrieval requests (optional; default = 8)").append("\n")
+				.append("\t").append(DswarmToolsStatics.CONTENT_RETRIEVAL_CONCURRENCY_PARAMETER).append(" : the maximum number of parallel data model content retrieval requests (optional; default = 4)").append("\n")
+				.append("\t").append(DswarmToolsStatics.ADAPTIVE_CONCURRENCY_PARAMETER).append(" : adapt the number of parallel (content) retrieval requests to the utilised d:swarm instance, i.e., start with one request, raise the limit while the requests succeed and halve it on failed requests, timeouts or 5xx responses (project retrieval: also latency spikes); the (content) retrieval concurrency is the upper bound (optional; default = false)").append("\n")
+				.append("\t").append(DswarmToolsStatics.WRITING_CONCURRENCY_PARAMETER).append(" : the maximum number of parallel export file writes, if streaming export is disabled (optional; default = 4)").append("\n")
+				.append("\t").append(DswarmToolsStatics.EXPORT_COMPRESSION_PARAMETER).append(" : the compression of the export files, i.e., 'none' or 'gzip' (block-parallel compression with all cores) (optional; default = none)").append("\n")
+				.append("\t").append(DswarmToolsStatics.EXPORT_FORMAT_PARAMETER).append(" : the format of the export files, i.e., 'json', 'smile' (binary JSON; converted back to JSON at import) or 'ndjson' (one record per line; with record offsets index) (optional; default = json)").append("\n")
+				.append("\t").append(DswarmToolsStatics.INCREMENTAL_EXPORT_PARAMETER).append(" : (re-)write only new or changed objects, i.e., unchanged objects are skipped with help of the export manifest of the last export into the export directory (optional; default = false)").append("\n")
+				.append("\t").append(DswarmToolsStatics.EXPORT_STORE_DIRECTORY_NAME_PARAMETER).append(" : the directory of a content-addressed export store (absolute path), i.e., each export file is stored only once in the store and the export directory consists of hard links to the stored files (optional; needs to reside on the same file system as the export directory)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_CONNECTOR_PARAMETER).append(" : the HTTP connector of the requests, i.e., 'url-connection' (JDK default), 'pooled' (pool of keep-alive connections) or 'non-blocking' (NIO, i.e., no thread per in-flight request) (optional; default = url-connection)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_POOL_SIZE_PARAMETER).append(" : the maximum number of connections of the pooled or non-blocking HTTP connector (optional; default = retrieval + content retrieval + import (batch) concurrency)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_MAX_CONNECTIONS_PER_HOST_PARAMETER).append(" : the maximum number of connections of the pooled or non-blocking HTTP connector to a single host (optional; default = HTTP pool size)").append("\n")
+				.append("\t").append(DswarmToolsStatics.SOCKET_SEND_BUFFER_SIZE_PARAMETER).append(" : the socket send buffer size (in bytes) of the connections of the pooled or non-blocking HTTP connector (optional; default = 0, i.e., OS default)").append("\n")
+				.append("\t").append(DswarmToolsStatics.SOCKET_RECEIVE_BUFFER_SIZE_PARAMETER).append(" : the socket receive buffer size (in bytes) of the connections of the pooled or non-blocking HTTP connector (optional; default = 0, i.e., OS default)").append("\n\n")
 				.append("\t").append(DswarmToolsStatics.HELP_PARAMETER).append(" : prints this help").append("\n\n")
 				.append("have fun with this tool!").append("\n\n")
 				.append("if you observe any problems with this tool or have questions about handling this tool etc. don't hesitate to contact us").append("\n")
@@ -60,10 +78,13 @@ public class DataModelsContentExportExecuter extends AbstractExecuter {
 		HELP = HELP_SB.toString();
 	}
 
-	private static void executeExport(final String dswarmBackendAPIBaseURI, final String dswarmGraphExtensionAPIBaseURI, final String exportDirectoryName) {
+	private static void executeExport(final String dswarmBackendAPIBaseURI,
+	                                  final String dswarmGraphExtensionAPIBaseURI,
+	                                  final String exportDirectoryName,
+	                                  final DswarmToolsConfig config) {
 
-		final DswarmProjectsAPIClient dswarmProjectsAPIClient = new DswarmProjectsAPIClient(dswarmBackendAPIBaseURI);
-		final DataModelsContentExporter dataModelsContentExporter = new DataModelsContentExporter(dswarmGraphExtensionAPIBaseURI);
+		final DswarmProjectsAPIClient dswarmProjectsAPIClient = new DswarmProjectsAPIClient(dswarmBackendAPIBaseURI, config);
+		final DataModelsContentExporter dataModelsContentExporter = new DataModelsContentExporter(dswarmGraphExtensionAPIBaseURI, config);
 
 		// fetch input data model identifiers + record class URIs of input schemata
 		final Observable<Tuple2<String, String>> readDataModelRequestInputTupleObservable = dswarmProjectsAPIClient.fetchObjects()
@@ -95,7 +116,7 @@ public class DataModelsContentExportExecuter extends AbstractExecuter {
 		Iterable<String> dataModelDescriptions = dataModelContentJSONStringObservable
 				.doOnNext(dataModelDescriptionJSONString -> counter.incrementAndGet())
 				.doOnCompleted(() -> LOG.info("exported content from '{}' data models from '{}' to '{}'", counter.get(), dswarmGraphExtensionAPIBaseURI, exportDirectoryName))
-				.doOnCompleted(() -> System.exit(0))
+				.doOnCompleted(AbstractExecuter::shutdownAndExit)
 				.toBlocking().toIterable();
 
 		dataModelDescriptions.forEach(dataModelDescription -> LOG.trace("exported data model description '{}'", dataModelDescription));
@@ -128,14 +149,37 @@ public class DataModelsContentExportExecuter extends AbstractExecuter {
 		LOG.info("d:swarm graph extension API base URI = '{}'", dswarmGraphExtensionAPIBaseURI);
 		LOG.info("export directory name = '{}'", exportDirectoryName);
 
+		final DswarmToolsConfig config = new DswarmToolsConfig(argMap);
+
+		LOG.info("streaming export = '{}'", config.isStreamingExport());
+		LOG.info("export page size = '{}'", config.getExportPageSize());
+		LOG.info("retrieval concurrency = '{}'", config.getRetrievalConcurrency());
+		LOG.info("content retrieval concurrency = '{}'", config.getContentRetrievalConcurrency());
+		LOG.info("adaptive concurrency = '{}'", config.isAdaptiveConcurrency());
+		LOG.info("writing concurrency = '{}'", config.getWritingConcurrency());
+		LOG.info("export compression = '{}'", config.getExportCompression());
+		LOG.info("export format = '{}'", config.getExportFormat());
+		LOG.info("incremental export = '{}'", config.isIncrementalExport());
+		LOG.info("export store directory name = '{}'", config.getExportStoreDirectoryName().orElse(null));
+		LOG.info("HTTP connector = '{}'", config.getHttpConnector());
+		LOG.info("HTTP pool size = '{}'", config.getHttpPoolSize());
+		LOG.info("HTTP max connections per host = '{}'", config.getHttpMaxConnectionsPerHost());
+		LOG.info("socket send buffer size = '{}'", config.getSocketSendBufferSize());
+		LOG.info("socket receive buffer size = '{}'", config.getSocketReceiveBufferSize());
+
 		try {
 
-			executeExport(dswarmBackendAPIBaseURI, dswarmGraphExtensionAPIBaseURI, exportDirectoryName);
+			executeExport(dswarmBackendAPIBaseURI, dswarmGraphExtensionAPIBaseURI, exportDirectoryName, config);
 		} catch (final Exception e) {
 
 			LOG.error("something went wrong at export execution.", e);
 
 			System.out.println("\n" + HELP);
+		} finally {
+
+			// releases the (non-daemon) threads and the HTTP connections, if the execution was aborted
+			AbstractAPIClient.shutdown();
+			RxUtils.shutdown();
 		}
 	}
 }
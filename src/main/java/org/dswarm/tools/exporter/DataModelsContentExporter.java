@@ -15,28 +15,73 @@
  */
 package org.dswarm.tools.exporter;
 
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
 import javaslang.Tuple2;
 import rx.Observable;
 
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.DswarmToolsStatics;
 import org.dswarm.tools.apiclients.DswarmGraphExtensionAPIClient;
+import org.dswarm.tools.utils.ExportFormat;
 
 /**
  * @author tgaengler
  */
 public final class DataModelsContentExporter extends AbstractExporter<DswarmGraphExtensionAPIClient> {
 
-	public DataModelsContentExporter(final String dswarmGraphExtensionAPIBaseURI) {
+	/**
+	 * data model identifier -> record class URI (of the exported data models; for the export manifest)
+	 */
+	private final Map<String, String> recordClassURIs = new ConcurrentHashMap<>();
+
+	public DataModelsContentExporter(final String dswarmGraphExtensionAPIBaseURI, final DswarmToolsConfig config) {
 
-		super(new DswarmGraphExtensionAPIClient(dswarmGraphExtensionAPIBaseURI), DswarmToolsStatics.DATA_MODEL);
+		super(new DswarmGraphExtensionAPIClient(dswarmGraphExtensionAPIBaseURI, config), DswarmToolsStatics.DATA_MODEL, config);
 	}
 
-	public Observable<String> exportObjectsContent(final String exportDirectoryName, final Observable<Tuple2<String, String>> requestInputObservable) {
+	/**
+	 * @param exportDirectoryName    the export directory
+	 * @param requestInputObservable v1 = data model identifier; v2 = record class URI
+	 * @return the exported data models content (JSON) or the identifiers of the exported data models (in streaming mode)
+	 */
+	public Observable<String> exportObjectsContent(final String exportDirectoryName, final Observable<Tuple2<String, String>> requestInputObservableArg) {
+
+		final Observable<Tuple2<String, String>> requestInputObservable = requestInputObservableArg
+				.doOnNext(requestInput -> recordClassURIs.put(requestInput._1, requestInput._2));
+
+		if (config.isStreamingExport() || config.getExportPageSize() > 0) {
+
+			// 3. stream each object's content into a separate file (i.e. the writing is bounded by the content retrieval concurrency,
+			// since the response is consumed while writing; in paged mode, the next page is retrieved, when the current one is written)
+			return Observable.defer(() -> {
+
+				prepareExport(exportDirectoryName);
+
+				return apiClient.processDataModelsContentStreams(requestInputObservable,
+						dataModelContentStream -> writeExportObjectStreamToFile(exportDirectoryName, dataModelContentStream))
+						.doOnCompleted(() -> completeExport(exportDirectoryName));
+			});
+		}
+
+		return writeExportObjectsToFiles(exportDirectoryName, fetchObjectsContent(requestInputObservable));
+	}
+
+	@Override
+	protected Optional<String> findRecordClassURI(final String objectIdentifier) {
+
+		return Optional.ofNullable(recordClassURIs.get(objectIdentifier));
+	}
+
+	/**
+	 * @return the configured format of the data models content export files (e.g. binary JSON)
+	 */
+	@Override
+	protected ExportFormat getExportFormat() {
 
-		return fetchObjectsContent(requestInputObservable)
-				.observeOn(scheduler)
-				// 3. store each object in a separate file
-				.map(projectDescription -> writeExportObjectToFile(exportDirectoryName, projectDescription));
+		return config.getExportFormat();
 	}
 
 	@Override
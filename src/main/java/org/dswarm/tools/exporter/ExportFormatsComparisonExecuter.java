@@ -0,0 +1,211 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.exporter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.google.common.io.ByteStreams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.tools.AbstractExecuter;
+import org.dswarm.tools.DswarmToolsException;
+import org.dswarm.tools.DswarmToolsStatics;
+import org.dswarm.tools.utils.DswarmToolUtils;
+import org.dswarm.tools.utils.ExportFormat;
+
+/**
+ * To be able to compare the size and the parse time of the export formats via commandline, i.e., each (JSON) export file of the
+ * given directory is converted (in memory) into each other export format and parsed (token by token) in each format.
+ *
+ * (incl. printable help)
+ *
+ * @author tgaengler
+ */
+public class ExportFormatsComparisonExecuter extends AbstractExecuter {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ExportFormatsComparisonExecuter.class);
+
+	private static final StringBuilder HELP_SB = new StringBuilder();
+
+	private static final int PARSE_ROUNDS = 5;
+	private static final double BYTES_PER_MB = 1024 * 1024;
+
+	static {
+
+		HELP_SB.append("\n")
+				.append("this is the d:swarm export formats comparison").append("\n\n")
+				.append("\t").append("this tool is intended for comparing the size and the parse time of the export formats with help of existing (JSON) export files").append("\n\n")
+				.append("following parameters are available for configuration at the moment:").append("\n\n")
+				.append("\t").append(DswarmToolsStatics.EXPORT_DIRECTORY_NAME_PARAMETER).append(" : the name of the directory of the (JSON) export files (absolute path)").append("\n\n")
+				.append("\t").append(DswarmToolsStatics.HELP_PARAMETER).append(" : prints this help").append("\n\n")
+				.append("have fun with this tool!").append("\n\n")
+				.append("if you observe any problems with this tool or have questions about handling this tool etc. don't hesitate to contact us").append("\n")
+				.append("(you can find our contact details at http://dswarm.org)").append("\n");
+
+		HELP = HELP_SB.toString();
+	}
+
+	private static void executeComparison(final String exportDirectoryName) throws DswarmToolsException, IOException {
+
+		final ExportFormat[] exportFormats = ExportFormat.values();
+
+		final long[] sizes = new long[exportFormats.length];
+		final long[] parseTimes = new long[exportFormats.length];
+
+		int fileCounter = 0;
+
+		for (final String fileName : DswarmToolUtils.readFileNames(exportDirectoryName)) {
+
+			final Path file = Paths.get(exportDirectoryName, fileName);
+
+			if (ExportFormat.detect(fileName) != ExportFormat.JSON || !file.toFile().isFile()) {
+
+				continue;
+			}
+
+			final byte[] jsonContent;
+
+			try (final InputStream inputStream = DswarmToolUtils.newDecompressingInputStream(file)) {
+
+				jsonContent = ByteStreams.toByteArray(inputStream);
+			}
+
+			for (int i = 0; i < exportFormats.length; i++) {
+
+				final byte[] content = convert(jsonContent, exportFormats[i]);
+				final long parseTime = measureParseTime(content, exportFormats[i]);
+
+				sizes[i] += content.length;
+				parseTimes[i] += parseTime;
+
+				LOG.debug("{} of '{}': size = '{}' bytes; parse time = '{}' ms", exportFormats[i], fileName, content.length, parseTime / 1000000);
+			}
+
+			fileCounter++;
+		}
+
+		LOG.info("compared export formats of '{}' files from '{}' (parse time = average of '{}' rounds after warm-up)", fileCounter, exportDirectoryName, PARSE_ROUNDS);
+
+		for (int i = 0; i < exportFormats.length; i++) {
+
+			LOG.info("{}: size = '{}' MB ('{}' % of JSON); parse time = '{}' ms ('{}' % of JSON)",
+					exportFormats[i],
+					String.format("%.2f", sizes[i] / BYTES_PER_MB),
+					percentage(sizes[i], sizes[0]),
+					parseTimes[i] / 1000000,
+					percentage(parseTimes[i], parseTimes[0]));
+		}
+	}
+
+	private static byte[] convert(final byte[] jsonContent, final ExportFormat exportFormat) throws IOException {
+
+		if (exportFormat == ExportFormat.JSON) {
+
+			return jsonContent;
+		}
+
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(jsonContent.length);
+
+		try (final JsonParser parser = ExportFormat.JSON.createParser(new ByteArrayInputStream(jsonContent));
+		     final JsonGenerator generator = exportFormat.createGenerator(outputStream)) {
+
+			DswarmToolUtils.copyFromJSON(parser, generator, exportFormat);
+		}
+
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * @return the average time (in ns) for parsing the given content token by token (incl. text access, as the conversion at import does)
+	 */
+	private static long measureParseTime(final byte[] content, final ExportFormat exportFormat) throws IOException {
+
+		// warm-up round
+		parse(content, exportFormat);
+
+		long parseTime = 0;
+
+		for (int i = 0; i < PARSE_ROUNDS; i++) {
+
+			final long start = System.nanoTime();
+
+			parse(content, exportFormat);
+
+			parseTime += System.nanoTime() - start;
+		}
+
+		return parseTime / PARSE_ROUNDS;
+	}
+
+	private static void parse(final byte[] content, final ExportFormat exportFormat) throws IOException {
+
+		try (final JsonParser parser = exportFormat.createParser(new ByteArrayInputStream(content))) {
+
+			while (parser.nextToken() != null) {
+
+				parser.getText();
+			}
+		}
+	}
+
+	private static String percentage(final long value, final long reference) {
+
+		return reference > 0 ? String.format("%.1f", 100.0 * value / reference) : "-";
+	}
+
+	public static void main(final String[] args) {
+
+		// 0. read path from arguments
+		if (args == null || args.length <= 0) {
+
+			LOG.error("cannot execute comparison - no export directory name is given as commandline parameter");
+
+			return;
+		}
+
+		if (args.length == 1 && DswarmToolsStatics.HELP_PARAMETER.equals(args[0])) {
+
+			printHelp();
+
+			return;
+		}
+
+		final Map<String, String> argMap = parseArgs(args);
+
+		final String exportDirectoryName = argMap.get(DswarmToolsStatics.EXPORT_DIRECTORY_NAME_PARAMETER);
+
+		LOG.info("export directory name = '{}'", exportDirectoryName);
+
+		try {
+
+			executeComparison(exportDirectoryName);
+		} catch (final Exception e) {
+
+			LOG.error("something went wrong at comparison execution.", e);
+
+			System.out.println("\n" + HELP);
+		}
+	}
+}
@@ -23,7 +23,10 @@ import org.slf4j.LoggerFactory;
 import rx.Observable;
 
 import org.dswarm.tools.AbstractExecuter;
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.DswarmToolsStatics;
+import org.dswarm.tools.apiclients.AbstractAPIClient;
+import org.dswarm.tools.utils.RxUtils;
 
 /**
  * To be able to execute the Projects backup via commandline.
@@ -45,7 +48,20 @@ public class ProjectsExportExecuter extends AbstractExecuter {
 				.append("\t").append("this tool is intended for exporting Projects from a running d:swarm instance (that can be imported to this or another d:swarm instance)").append("\n\n")
 				.append("following parameters are available for configuration at the moment:").append("\n\n")
 				.append("\t").append(DswarmToolsStatics.DSWARM_BACKEND_API_BASE_URI_PARAMETER).append(" : the d:swarm backend API base URI").append("\n")
-				.append("\t").append(DswarmToolsStatics.EXPORT_DIRECTORY_NAME_PARAMETER).append(" : the name of the export directory (absolute path)").append("\n\n")
+				.append("\t").append(DswarmToolsStatics.EXPORT_DIRECTORY_NAME_PARAMETER).append(" : the name of the export directory (absolute path)").append("\n")
+				.append("\t").append(DswarmToolsStatics.RETRIEVAL_CONCURRENCY_PARAMETER).append(" : the maximum number of parallel project retrieval requests (optional; default = 8)").append("\n")
+				.append("\t").append(DswarmToolsStatics.ADAPTIVE_CONCURRENCY_PARAMETER).append(" : adapt the number of parallel project retrieval requests to the utilised d:swarm instance, i.e., start with one request, raise the limit while the requests succeed (with flat latency) and halve it on failed requests, timeouts or 5xx responses or latency spikes; the retrieval concurrency is the upper bound (optional; default = false)").append("\n")
+				.append("\t").append(DswarmToolsStatics.WRITING_CONCURRENCY_PARAMETER).append(" : the maximum number of parallel export file writes (optional; default = 4)").append("\n")
+				.append("\t").append(DswarmToolsStatics.EXPORT_COMPRESSION_PARAMETER).append(" : the compression of the export files, i.e., 'none' or 'gzip' (block-parallel compression with all cores) (optional; default = none)").append("\n")
+				.append("\t").append(DswarmToolsStatics.INCREMENTAL_EXPORT_PARAMETER).append(" : (re-)write only new or changed objects, i.e., unchanged objects are skipped with help of the export manifest of the last export into the export directory (optional; default = false)").append("\n")
+				.append("\t").append(DswarmToolsStatics.EXPORT_STORE_DIRECTORY_NAME_PARAMETER).append(" : the directory of a content-addressed export store (absolute path), i.e., each export file is stored only once in the store and the export directory consists of hard links to the stored files (optional; needs to reside on the same file system as the export directory)").append("\n")
+				.append("\t").append(DswarmToolsStatics.PACKED_EXPORT_PARAMETER).append(" : append the export files to the segments of a packed archive (with an offset index) instead of writing separate files (optional; default = false; not combinable with incremental export and export store)").append("\n")
+				.append("\t").append(DswarmToolsStatics.PACKED_EXPORT_SEGMENT_SIZE_PARAMETER).append(" : the maximum size of a segment of a packed archive in bytes (optional; default = 1073741824)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_CONNECTOR_PARAMETER).append(" : the HTTP connector of the requests, i.e., 'url-connection' (JDK default), 'pooled' (pool of keep-alive connections) or 'non-blocking' (NIO, i.e., no thread per in-flight request) (optional; default = url-connection)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_POOL_SIZE_PARAMETER).append(" : the maximum number of connections of the pooled or non-blocking HTTP connector (optional; default = retrieval + content retrieval + import (batch) concurrency)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_MAX_CONNECTIONS_PER_HOST_PARAMETER).append(" : the maximum number of connections of the pooled or non-blocking HTTP connector to a single host (optional; default = HTTP pool size)").append("\n")
+				.append("\t").append(DswarmToolsStatics.SOCKET_SEND_BUFFER_SIZE_PARAMETER).append(" : the socket send buffer size (in bytes) of the connections of the pooled or non-blocking HTTP connector (optional; default = 0, i.e., OS default)").append("\n")
+				.append("\t").append(DswarmToolsStatics.SOCKET_RECEIVE_BUFFER_SIZE_PARAMETER).append(" : the socket receive buffer size (in bytes) of the connections of the pooled or non-blocking HTTP connector (optional; default = 0, i.e., OS default)").append("\n\n")
 				.append("\t").append(DswarmToolsStatics.HELP_PARAMETER).append(" : prints this help").append("\n\n")
 				.append("have fun with this tool!").append("\n\n")
 				.append("if you observe any problems with this tool or have questions about handling this tool etc. don't hesitate to contact us").append("\n")
@@ -54,9 +70,9 @@ public class ProjectsExportExecuter extends AbstractExecuter {
 		HELP = HELP_SB.toString();
 	}
 
-	private static void executeExport(final String dswarmBackendAPIBaseURI, final String exportDirectoryName) {
+	private static void executeExport(final String dswarmBackendAPIBaseURI, final String exportDirectoryName, final DswarmToolsConfig config) {
 
-		final ProjectsExporter projectsExporter = new ProjectsExporter(dswarmBackendAPIBaseURI);
+		final ProjectsExporter projectsExporter = new ProjectsExporter(dswarmBackendAPIBaseURI, config);
 
 		final Observable<String> projectDescriptionJSONStringObservable = projectsExporter.exportObjects(exportDirectoryName);
 
@@ -65,7 +81,7 @@ public class ProjectsExportExecuter extends AbstractExecuter {
 		Iterable<String> projectDescriptions = projectDescriptionJSONStringObservable
 				.doOnNext(projectDescriptionJSONString -> counter.incrementAndGet())
 				.doOnCompleted(() -> LOG.info("exported '{}' projects from '{}' to '{}'", counter.get(), dswarmBackendAPIBaseURI, exportDirectoryName))
-				.doOnCompleted(() -> System.exit(0))
+				.doOnCompleted(AbstractExecuter::shutdownAndExit)
 				.toBlocking().toIterable();
 
 		projectDescriptions.forEach(projectDescription -> LOG.trace("exported project description '{}'", projectDescription));
@@ -96,14 +112,35 @@ public class ProjectsExportExecuter extends AbstractExecuter {
 		LOG.info("d:swarm backend API base URI = '{}'", dswarmBackendAPIBaseURI);
 		LOG.info("export directory name = '{}'", exportDirectoryName);
 
+		final DswarmToolsConfig config = new DswarmToolsConfig(argMap);
+
+		LOG.info("retrieval concurrency = '{}'", config.getRetrievalConcurrency());
+		LOG.info("adaptive concurrency = '{}'", config.isAdaptiveConcurrency());
+		LOG.info("writing concurrency = '{}'", config.getWritingConcurrency());
+		LOG.info("export compression = '{}'", config.getExportCompression());
+		LOG.info("incremental export = '{}'", config.isIncrementalExport());
+		LOG.info("export store directory name = '{}'", config.getExportStoreDirectoryName().orElse(null));
+		LOG.info("packed export = '{}'", config.isPackedExport());
+		LOG.info("packed export segment size = '{}'", config.getPackedExportSegmentSize());
+		LOG.info("HTTP connector = '{}'", config.getHttpConnector());
+		LOG.info("HTTP pool size = '{}'", config.getHttpPoolSize());
+		LOG.info("HTTP max connections per host = '{}'", config.getHttpMaxConnectionsPerHost());
+		LOG.info("socket send buffer size = '{}'", config.getSocketSendBufferSize());
+		LOG.info("socket receive buffer size = '{}'", config.getSocketReceiveBufferSize());
+
 		try {
 
-			executeExport(dswarmBackendAPIBaseURI, exportDirectoryName);
+			executeExport(dswarmBackendAPIBaseURI, exportDirectoryName, config);
 		} catch (final Exception e) {
 
 			LOG.error("something went wrong at export execution.", e);
 
 			System.out.println("\n" + HELP);
+		} finally {
+
+			// releases the (non-daemon) threads and the HTTP connections, if the execution was aborted
+			AbstractAPIClient.shutdown();
+			RxUtils.shutdown();
 		}
 	}
 }
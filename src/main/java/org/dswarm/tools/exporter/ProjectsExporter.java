@@ -18,6 +18,7 @@ package org.dswarm.tools.exporter;
 import javaslang.Tuple2;
 import rx.Observable;
 
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.DswarmToolsStatics;
 import org.dswarm.tools.apiclients.DswarmProjectsAPIClient;
 
@@ -26,9 +27,9 @@ import org.dswarm.tools.apiclients.DswarmProjectsAPIClient;
  */
 public final class ProjectsExporter extends AbstractExporter<DswarmProjectsAPIClient> {
 
-	public ProjectsExporter(final String dswarmBackendAPIBaseURI) {
+	public ProjectsExporter(final String dswarmBackendAPIBaseURI, final DswarmToolsConfig config) {
 
-		super(new DswarmProjectsAPIClient(dswarmBackendAPIBaseURI), DswarmToolsStatics.PROJECT);
+		super(new DswarmProjectsAPIClient(dswarmBackendAPIBaseURI, config), DswarmToolsStatics.PROJECT, config);
 	}
 
 	@Override
@@ -36,4 +37,13 @@ public final class ProjectsExporter extends AbstractExporter<DswarmProjectsAPICl
 
 		return apiClient.fetchObjects();
 	}
+
+	/**
+	 * @return true, since there are usually many small project descriptions
+	 */
+	@Override
+	protected boolean isPackingSupported() {
+
+		return true;
+	}
 }
\ No newline at end of file
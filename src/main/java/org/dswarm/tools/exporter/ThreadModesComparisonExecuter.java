@@ -0,0 +1,241 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.exporter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+
+import org.dswarm.tools.AbstractExecuter;
+import org.dswarm.tools.DswarmToolsConfig;
+import org.dswarm.tools.DswarmToolsStatics;
+import org.dswarm.tools.apiclients.AbstractAPIClient;
+import org.dswarm.tools.apiclients.HttpConnector;
+import org.dswarm.tools.utils.RxUtils;
+
+/**
+ * To be able to compare the thread modes (blocking HTTP connectors on the bounded platform thread pools vs. the non-blocking HTTP
+ * connector) via commandline, i.e., GET requests to the given URI are executed with 10, 100 and 1000 parallel requests (in the same way
+ * as the retrieval requests of the export tools, i.e., request execution and response handling (incl. reading the response entity) on
+ * the HTTP threads) and the peak number of threads, the resident set size (RSS; Linux only) and the throughput are logged for each
+ * concurrency level. The thread mode is selected via the HTTP connector parameter, i.e., the comparison consists of one run per
+ * connector.
+ *
+ * (incl. printable help)
+ *
+ * @author tgaengler
+ */
+public class ThreadModesComparisonExecuter extends AbstractExecuter {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ThreadModesComparisonExecuter.class);
+
+	private static final StringBuilder HELP_SB = new StringBuilder();
+
+	private static final int[] CONCURRENCY_LEVELS = { 10, 100, 1000 };
+	private static final int REQUESTS_PER_PARALLEL_REQUEST = 5;
+	private static final String PROC_STATUS_FILE = "/proc/self/status";
+	private static final String RSS_LINE_PREFIX = "VmRSS:";
+	private static final double KB_PER_MB = 1024;
+
+	static {
+
+		HELP_SB.append("\n")
+				.append("this is the d:swarm thread modes comparison").append("\n\n")
+				.append("\t").append("this tool is intended for comparing the thread count, the memory usage (RSS) and the throughput of the blocking HTTP connectors (on the platform thread pools) and the non-blocking HTTP connector at 10, 100 and 1000 parallel requests").append("\n\n")
+				.append("following parameters are available for configuration at the moment:").append("\n\n")
+				.append("\t").append(DswarmToolsStatics.REQUEST_URI_PARAMETER).append(" : the URI of the GET requests (e.g. a d:swarm backend API resource)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_CONNECTOR_PARAMETER).append(" : the HTTP connector of the requests, i.e., 'url-connection', 'pooled' or 'non-blocking' (optional; default = url-connection)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_POOL_SIZE_PARAMETER).append(" : the maximum number of connections of the pooled or non-blocking HTTP connector (optional; default = 1000)").append("\n\n")
+				.append("\t").append(DswarmToolsStatics.HELP_PARAMETER).append(" : prints this help").append("\n\n")
+				.append("have fun with this tool!").append("\n\n")
+				.append("if you observe any problems with this tool or have questions about handling this tool etc. don't hesitate to contact us").append("\n")
+				.append("(you can find our contact details at http://dswarm.org)").append("\n");
+
+		HELP = HELP_SB.toString();
+	}
+
+	/**
+	 * executes plain GET requests (in the same way as the retrieval requests of the export tools)
+	 */
+	private static final class RequestClient extends AbstractAPIClient {
+
+		private RequestClient(final String requestURI, final DswarmToolsConfig config) {
+
+			super(requestURI, "request", config);
+		}
+
+		/**
+		 * @return the response status
+		 */
+		private Observable<Integer> request() {
+
+			return rxWebTarget().request()
+					.rx()
+					.get()
+					.observeOn(exportScheduler)
+					.map(response -> {
+
+						response.readEntity(String.class);
+
+						return response.getStatus();
+					});
+		}
+	}
+
+	private static void executeComparison(final String requestURI, final DswarmToolsConfig config) throws IOException {
+
+		final RequestClient requestClient = new RequestClient(requestURI, config);
+		final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		final String threadMode = config.getHttpConnector() == HttpConnector.NON_BLOCKING ? "non-blocking HTTP connector" : "platform thread pools";
+
+		// warm-up
+		executeRequests(requestClient, CONCURRENCY_LEVELS[0], CONCURRENCY_LEVELS[0]);
+
+		for (final int concurrency : CONCURRENCY_LEVELS) {
+
+			final int requests = concurrency * REQUESTS_PER_PARALLEL_REQUEST;
+
+			threadMXBean.resetPeakThreadCount();
+
+			final long start = System.nanoTime();
+
+			final int successfulRequests = executeRequests(requestClient, concurrency, requests);
+
+			final long duration = System.nanoTime() - start;
+
+			LOG.info("{} with '{}' parallel requests: '{}' requests ('{}' successful); throughput = '{}' requests/s; peak threads = '{}'; RSS = '{}' MB",
+					threadMode,
+					concurrency,
+					requests,
+					successfulRequests,
+					String.format("%.1f", requests * 1000000000.0 / duration),
+					threadMXBean.getPeakThreadCount(),
+					readResidentSetSize());
+		}
+	}
+
+	/**
+	 * @return the number of successful (2xx) requests
+	 */
+	private static int executeRequests(final RequestClient requestClient, final int concurrency, final int requests) {
+
+		final AtomicInteger successfulRequests = new AtomicInteger(0);
+
+		Observable.range(0, requests)
+				.flatMap(i -> requestClient.request()
+						.onErrorReturn(throwable -> {
+
+							LOG.debug("request failed", throwable);
+
+							return Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
+						}), concurrency)
+				.filter(status -> status / 100 == 2)
+				.doOnNext(status -> successfulRequests.incrementAndGet())
+				.toBlocking()
+				.lastOrDefault(null);
+
+		return successfulRequests.get();
+	}
+
+	/**
+	 * @return the resident set size of this process in MB (or '-', if it is not available, i.e., on non-Linux systems)
+	 */
+	private static String readResidentSetSize() throws IOException {
+
+		final Path procStatusFile = Paths.get(PROC_STATUS_FILE);
+
+		if (!Files.isReadable(procStatusFile)) {
+
+			return "-";
+		}
+
+		for (final String line : Files.readAllLines(procStatusFile, StandardCharsets.UTF_8)) {
+
+			if (line.startsWith(RSS_LINE_PREFIX)) {
+
+				final long rssKB = Long.parseLong(line.substring(RSS_LINE_PREFIX.length()).replace("kB", "").trim());
+
+				return String.format("%.1f", rssKB / KB_PER_MB);
+			}
+		}
+
+		return "-";
+	}
+
+	public static void main(final String[] args) {
+
+		// 0. read path from arguments
+		if (args == null || args.length <= 0) {
+
+			LOG.error("cannot execute comparison - no request URI is given as commandline parameter");
+
+			return;
+		}
+
+		if (args.length == 1 && DswarmToolsStatics.HELP_PARAMETER.equals(args[0])) {
+
+			printHelp();
+
+			return;
+		}
+
+		final Map<String, String> argMap = parseArgs(args);
+
+		final String requestURI = argMap.get(DswarmToolsStatics.REQUEST_URI_PARAMETER);
+
+		LOG.info("request URI = '{}'", requestURI);
+
+		// the connection pool shouldn't limit the largest concurrency level
+		if (new DswarmToolsConfig(argMap).getString(DswarmToolsStatics.HTTP_POOL_SIZE_PARAMETER, null) == null) {
+
+			argMap.put(DswarmToolsStatics.HTTP_POOL_SIZE_PARAMETER, String.valueOf(CONCURRENCY_LEVELS[CONCURRENCY_LEVELS.length - 1]));
+		}
+
+		final DswarmToolsConfig config = new DswarmToolsConfig(argMap);
+
+		LOG.info("HTTP connector = '{}'", config.getHttpConnector());
+		LOG.info("HTTP pool size = '{}'", config.getHttpPoolSize());
+
+		try {
+
+			executeComparison(requestURI, config);
+
+			shutdownAndExit();
+		} catch (final Exception e) {
+
+			LOG.error("something went wrong at comparison execution.", e);
+
+			System.out.println("\n" + HELP);
+		} finally {
+
+			// releases the (non-daemon) threads and the HTTP connections, if the execution was aborted
+			AbstractAPIClient.shutdown();
+			RxUtils.shutdown();
+		}
+	}
+}
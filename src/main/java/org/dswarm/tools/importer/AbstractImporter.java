@@ -17,8 +17,10 @@ package org.dswarm.tools.importer;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import javaslang.Tuple;
 import javaslang.Tuple2;
 import javaslang.Tuple3;
@@ -27,10 +29,16 @@ import org.slf4j.LoggerFactory;
 import rx.Observable;
 import rx.Scheduler;
 
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.DswarmToolsError;
 import org.dswarm.tools.DswarmToolsException;
 import org.dswarm.tools.DswarmToolsStatics;
 import org.dswarm.tools.utils.DswarmToolUtils;
+import org.dswarm.tools.utils.ExportFileScanner;
+import org.dswarm.tools.utils.ExportManifest;
+import org.dswarm.tools.utils.ImportFile;
+import org.dswarm.tools.utils.ImportJournal;
+import org.dswarm.tools.utils.PackedArchive;
 import org.dswarm.tools.utils.RxUtils;
 
 /**
@@ -42,48 +50,81 @@ public abstract class AbstractImporter<APICLIENT> {
 
 	protected final String objectName;
 	protected final Scheduler scheduler;
+	protected final DswarmToolsConfig config;
 
 
 	protected final APICLIENT apiClient;
 
-	public AbstractImporter(final APICLIENT apiClientArg, final String objectNameArg) {
+	public AbstractImporter(final APICLIENT apiClientArg, final String objectNameArg, final DswarmToolsConfig configArg) {
 
 		apiClient = apiClientArg;
 		objectName = objectNameArg;
+		config = configArg;
 		scheduler = RxUtils.getObjectReaderScheduler(objectName);
 	}
 
+	/**
+	 * Imports the objects of the given import directory. Each successfully imported object is recorded in the import journal, i.e.,
+	 * a resumed import skips the objects that were already imported.
+	 *
+	 * @param importDirectoryName the import directory
+	 * @return v1 = object identifier; v2 = response of the import request (of the successfully imported objects)
+	 * @throws DswarmToolsException
+	 */
 	public Observable<Tuple2<String, String>> importObjects(final String importDirectoryName) throws DswarmToolsException {
 
-		final Observable<Tuple2<String, String>> importObjectTupleObservable = prepareImport(importDirectoryName);
+		final ImportJournal journal = openJournal(importDirectoryName, objectName, config.isResume());
 
-		return executeImport(importObjectTupleObservable);
-	}
+		// object identifier -> checksum of the object file (for the journal)
+		final Map<String, Optional<String>> checksums = new ConcurrentHashMap<>();
+
+		final Observable<Tuple3<String, ImportFile, Optional<String>>> importObjectTupleObservable = prepareImport(importDirectoryName)
+				.filter(importObjectTuple -> {
+
+					if (journal.isCompleted(importObjectTuple._1, importObjectTuple._3)) {
+
+						LOG.debug("skip {} '{}', since it was already imported", objectName, importObjectTuple._1);
 
-	protected Observable<Tuple2<String, String>> prepareImport(final String importDirectoryName) throws DswarmToolsException {
+						return false;
+					}
 
-		final String[] importObjectFileNames = DswarmToolUtils.readFileNames(importDirectoryName);
+					return true;
+				})
+				.doOnNext(importObjectTuple -> checksums.put(importObjectTuple._1, importObjectTuple._3));
 
-		// read objects from files and prepare content
-		return Observable.from(importObjectFileNames)
-				.observeOn(scheduler)
-				.map(importObjectFileName -> readObjectFile(importDirectoryName, importObjectFileName))
-				.map(this::deserializeObjectFile)
-				.map(this::extractObjectIdentifier);
+		return executeImport(importObjectTupleObservable)
+				.doOnNext(importResultTuple -> recordCompletion(journal, importResultTuple._1, checksums.getOrDefault(importResultTuple._1, Optional.empty())))
+				.doOnTerminate(() -> closeJournal(journal));
 	}
 
-	protected abstract Observable<Tuple2<String, String>> executeImport(final Observable<Tuple2<String, String>> importObjectTupleObservable);
+	/**
+	 * @param resume true, if the objects of the existing import journal should be skipped
+	 * @return the import journal of the given object type in the given import directory
+	 * @throws DswarmToolsException
+	 */
+	static ImportJournal openJournal(final String importDirectoryName, final String objectName, final boolean resume) throws DswarmToolsException {
 
-	protected abstract JsonNode deserializeObject(final String importObjectJSONString, final String errorMessage);
+		try {
+
+			return ImportJournal.open(importDirectoryName, objectName, resume);
+		} catch (final IOException e) {
 
-	private static Tuple2<String, String> readObjectFile(final String importDirectoryName, final String importObjectFileName) {
+			final String message = String.format("something went wrong, while trying to open the %s import journal in folder '%s'", objectName, importDirectoryName);
+
+			LOG.error(message, e);
+
+			throw new DswarmToolsException(message, e);
+		}
+	}
+
+	static void recordCompletion(final ImportJournal journal, final String objectIdentifier, final Optional<String> optionalChecksum) {
 
 		try {
 
-			return Tuple.of(importDirectoryName + File.separator + importObjectFileName, DswarmToolUtils.readFromFile(importDirectoryName, importObjectFileName));
+			journal.recordCompletion(objectIdentifier, optionalChecksum);
 		} catch (final IOException e) {
 
-			final String message = String.format("something went wrong, while trying to read file '%s' in folder '%s'", importObjectFileName, importDirectoryName);
+			final String message = String.format("something went wrong, while trying to record the import of '%s' in the import journal", objectIdentifier);
 
 			LOG.error(message, e);
 
@@ -91,37 +132,147 @@ public abstract class AbstractImporter<APICLIENT> {
 		}
 	}
 
-	private Tuple3<String, JsonNode, String> deserializeObjectFile(final Tuple2<String, String> importObjectTuple) {
+	static void closeJournal(final ImportJournal journal) {
+
+		try {
+
+			journal.close();
+		} catch (final IOException e) {
+
+			LOG.error("couldn't close import journal", e);
+		}
+	}
+
+	/**
+	 * If the import directory contains a packed archive, the objects are taken from its index (i.e. the import directory isn't listed
+	 * and the content is read from the memory-mapped segments). Otherwise, the export files are scanned from the import directory (in
+	 * the configured import order) and the object identifiers are taken from the export manifest (if available). If there is an
+	 * export manifest, only the export files that are listed there are imported. Otherwise, the object identifiers are parsed from the
+	 * files.
+	 *
+	 * @param importDirectoryName the import directory
+	 * @return v1 = object identifier; v2 = object file (the content is not read at this point); v3 = expected checksum (CRC32C) of
+	 * the object file (if available)
+	 * @throws DswarmToolsException
+	 */
+	protected Observable<Tuple3<String, ImportFile, Optional<String>>> prepareImport(final String importDirectoryName) throws DswarmToolsException {
+
+		final Map<String, ExportManifest.Entry> manifestEntries = loadManifest(importDirectoryName).getEntriesByFileName();
+		final Optional<PackedArchive> optionalPackedArchive = openPackedArchive(importDirectoryName);
+
+		if (optionalPackedArchive.isPresent()) {
+
+			final PackedArchive packedArchive = optionalPackedArchive.get();
+
+			return Observable.from(packedArchive.getEntries())
+					.map(packedArchiveEntry -> Tuple.of(packedArchiveEntry.getObjectIdentifier(),
+							packedArchive.getImportFile(packedArchiveEntry),
+							Optional.ofNullable(manifestEntries.get(packedArchiveEntry.getFileName())).map(ExportManifest.Entry::getChecksum)));
+		}
+
+		// extract the object identifiers from the files (the content will be sent as is)
+		return ExportFileScanner.scan(importDirectoryName, objectName, config.getImportOrder())
+				.filter(exportFile -> isImportable(exportFile, manifestEntries, objectName))
+				.observeOn(scheduler, config.getStageBufferSize())
+				.map(exportFile -> {
+
+					final File importObjectFile = exportFile.getFile().toFile();
+					final ExportManifest.Entry manifestEntry = manifestEntries.get(exportFile.getFileName());
+
+					if (manifestEntry == null) {
+
+						final Tuple2<String, File> importObjectTuple = extractObjectIdentifier(importObjectFile);
+
+						return Tuple.of(importObjectTuple._1, ImportFile.of(importObjectFile.toPath()), Optional.<String>empty());
+					}
+
+					return Tuple.of(manifestEntry.getObjectIdentifier(), ImportFile.of(importObjectFile.toPath()), Optional.ofNullable(manifestEntry.getChecksum()));
+				});
+	}
+
+	/**
+	 * @param exportFile      an export file of the import directory
+	 * @param manifestEntries the entries of the export manifest of the import directory (file name -> manifest entry)
+	 * @return true, if there is no export manifest or if the export manifest lists the given export file (i.e. an export file that
+	 * isn't listed is a leftover of an earlier export, e.g., with another export format or compression, and would import an outdated
+	 * version of its object)
+	 */
+	static boolean isImportable(final ExportFileScanner.ExportFile exportFile, final Map<String, ExportManifest.Entry> manifestEntries, final String objectName) {
+
+		if (manifestEntries.isEmpty() || manifestEntries.containsKey(exportFile.getFileName())) {
+
+			return true;
+		}
+
+		LOG.warn("skip {} export file '{}', since it isn't listed in the export manifest (e.g. a leftover of an earlier export with another export format or compression)",
+				objectName, exportFile.getFile());
+
+		return false;
+	}
+
+	protected abstract Observable<Tuple2<String, String>> executeImport(final Observable<Tuple3<String, ImportFile, Optional<String>>> importObjectTupleObservable);
+
+	private Optional<PackedArchive> openPackedArchive(final String importDirectoryName) throws DswarmToolsException {
+
+		try {
+
+			return PackedArchive.open(importDirectoryName, objectName);
+		} catch (final IOException e) {
+
+			final String message = String.format("something went wrong, while trying to open the packed %s archive in folder '%s'", objectName, importDirectoryName);
+
+			LOG.error(message, e);
+
+			throw new DswarmToolsException(message, e);
+		}
+	}
+
+	private ExportManifest loadManifest(final String importDirectoryName) throws DswarmToolsException {
 
-		final String absoluteImportObjectFileName = importObjectTuple._1;
-		final String importObjectJSONString = importObjectTuple._2;
+		try {
+
+			return ExportManifest.load(importDirectoryName, objectName);
+		} catch (final IOException e) {
 
-		final String errorMessage = String.format("something went wrong, while trying to deserialize file '%s'", absoluteImportObjectFileName);
+			final String message = String.format("something went wrong, while trying to read the %s export manifest in folder '%s'", objectName, importDirectoryName);
 
-		final JsonNode importObjectJSON = deserializeObject(importObjectJSONString, errorMessage);
+			LOG.error(message, e);
 
-		return Tuple.of(absoluteImportObjectFileName, importObjectJSON, importObjectJSONString);
+			throw new DswarmToolsException(message, e);
+		}
 	}
 
-	protected Tuple2<String, String> extractObjectIdentifier(final Tuple3<String, JsonNode, String> importObjectTriple) {
+	/**
+	 * parses only the object identifier ('uuid') of the object in the given file (with a streaming parser), i.e., the object is not
+	 * deserialized completely
+	 *
+	 * @param importObjectFile the file of the object
+	 * @return v1 = object identifier; v2 = object file
+	 */
+	protected Tuple2<String, File> extractObjectIdentifier(final File importObjectFile) {
 
-		final String absoluteImportObjectFileName = importObjectTriple._1;
-		final JsonNode importObjectJSON = importObjectTriple._2;
-		final String importObjectJSONString = importObjectTriple._3;
+		final Optional<String> optionalImportObjectIdentifier;
 
-		final JsonNode importObjectIdentifierJsonNode = importObjectJSON.get(DswarmToolsStatics.UUID_IDENTIFIER);
+		try {
 
-		if (importObjectIdentifierJsonNode == null) {
+			optionalImportObjectIdentifier = DswarmToolUtils.readTopLevelField(importObjectFile, DswarmToolsStatics.UUID_IDENTIFIER);
+		} catch (final IOException e) {
 
-			final String message = String.format("something went wrong, while trying to extract %s identifier from content of file '%s'", objectName, absoluteImportObjectFileName);
+			final String message = String.format("something went wrong, while trying to read file '%s'", importObjectFile.getAbsolutePath());
 
-			LOG.error(message);
+			LOG.error(message, e);
 
-			throw DswarmToolsError.wrap(new DswarmToolsException(message));
+			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
 		}
 
-		final String importObjectIdentifier = importObjectIdentifierJsonNode.asText();
+		return optionalImportObjectIdentifier.map(importObjectIdentifier -> Tuple.of(importObjectIdentifier, importObjectFile))
+				.orElseThrow(() -> {
+
+					final String message = String.format("something went wrong, while trying to extract %s identifier from content of file '%s'", objectName, importObjectFile.getAbsolutePath());
+
+					LOG.error(message);
 
-		return Tuple.of(importObjectIdentifier, importObjectJSONString);
+					return DswarmToolsError.wrap(new DswarmToolsException(message));
+				});
 	}
 }
@@ -16,6 +16,7 @@
 package org.dswarm.tools.importer;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javaslang.Tuple2;
@@ -24,8 +25,11 @@ import org.slf4j.LoggerFactory;
 import rx.Observable;
 
 import org.dswarm.tools.AbstractExecuter;
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.DswarmToolsException;
 import org.dswarm.tools.DswarmToolsStatics;
+import org.dswarm.tools.apiclients.AbstractAPIClient;
+import org.dswarm.tools.utils.RxUtils;
 
 /**
  * @author tgaengler
@@ -45,7 +49,22 @@ public class DataModelsContentImportExecuter extends AbstractExecuter {
 				.append("following parameters are available for configuration at the moment:").append("\n\n")
 				.append("\t").append(DswarmToolsStatics.DSWARM_BACKEND_API_BASE_URI_PARAMETER).append(" : the d:swarm backend API base URI").append("\n")
 				.append("\t").append(DswarmToolsStatics.DSWARM_GRAPH_EXTENSION_API_BASE_URI_PARAMETER).append(" : the d:swarm graph extension API base URI").append("\n")
-				.append("\t").append(DswarmToolsStatics.IMPORT_DIRECTORY_NAME_PARAMETER).append(" : the name of the import directory (absolute path), i.e., where the files are located that should be imported").append("\n\n")
+				.append("\t").append(DswarmToolsStatics.IMPORT_DIRECTORY_NAME_PARAMETER).append(" : the name of the import directory (absolute path), i.e., where the files are located that should be imported").append("\n")
+				.append("\t").append(DswarmToolsStatics.IMPORT_CONCURRENCY_PARAMETER).append(" : the maximum number of parallel data model content uploads (optional; default = 1, i.e., strictly serial)").append("\n")
+				.append("\t").append(DswarmToolsStatics.ADAPTIVE_CONCURRENCY_PARAMETER).append(" : adapt the number of parallel upload requests to the utilised d:swarm instance, i.e., start with one request, raise the limit while the requests succeed and halve it on failed requests, timeouts or 5xx responses; the import concurrency is the upper bound (optional; default = false)").append("\n")
+				.append("\t").append(DswarmToolsStatics.UPLOAD_CHUNK_SIZE_PARAMETER).append(" : the size of the chunks (in bytes) of the data model content uploads (optional; default = 1048576)").append("\n")
+				.append("\t").append(DswarmToolsStatics.IMPORT_BATCH_SIZE_PARAMETER).append(" : the maximum number of records per upload request, i.e., the content of a data model is split into record batches that are uploaded separately (optional; default = 0, i.e., one upload request per data model)").append("\n")
+				.append("\t").append(DswarmToolsStatics.IMPORT_BATCH_CONCURRENCY_PARAMETER).append(" : the maximum number of parallel record batch uploads per data model (optional; default = 2)").append("\n")
+				.append("\t").append(DswarmToolsStatics.IMPORT_BATCH_RETRIES_PARAMETER).append(" : the number of retries of a failed record batch upload (optional; default = 3)").append("\n")
+				.append("\t").append(DswarmToolsStatics.RESUME_PARAMETER).append(" : resume an aborted import, i.e., skip the data models that are listed in the import journal of the import directory (optional; default = false, i.e., a new import journal is started)").append("\n")
+				.append("\t").append(DswarmToolsStatics.MAX_OPEN_FILES_PARAMETER).append(" : the maximum number of data model content files that are open at once, i.e., it caps the import concurrency (optional; default = 32)").append("\n")
+				.append("\t").append(DswarmToolsStatics.IMPORT_ORDER_PARAMETER).append(" : the order in which the data models content files are imported, i.e., 'largest-first' (minimises the total time of a parallel import), 'smallest-first' (many quick wins early) or 'directory' (the directory is streamed without sorting) (optional; default = largest-first)").append("\n")
+				.append("\t").append(DswarmToolsStatics.STAGE_BUFFER_SIZE_PARAMETER).append(" : the maximum number of scanned data models content files (and prepared upload requests) that are buffered ahead of the uploads, i.e., the memory usage depends on this buffer size instead of the number of import files (optional; default = 16)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_CONNECTOR_PARAMETER).append(" : the HTTP connector of the requests, i.e., 'url-connection' (JDK default), 'pooled' (pool of keep-alive connections) or 'non-blocking' (NIO, i.e., no thread per in-flight request) (optional; default = url-connection)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_POOL_SIZE_PARAMETER).append(" : the maximum number of connections of the pooled or non-blocking HTTP connector (optional; default = retrieval + content retrieval + import (batch) concurrency)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_MAX_CONNECTIONS_PER_HOST_PARAMETER).append(" : the maximum number of connections of the pooled or non-blocking HTTP connector to a single host (optional; default = HTTP pool size)").append("\n")
+				.append("\t").append(DswarmToolsStatics.SOCKET_SEND_BUFFER_SIZE_PARAMETER).append(" : the socket send buffer size (in bytes) of the connections of the pooled or non-blocking HTTP connector (optional; default = 0, i.e., OS default)").append("\n")
+				.append("\t").append(DswarmToolsStatics.SOCKET_RECEIVE_BUFFER_SIZE_PARAMETER).append(" : the socket receive buffer size (in bytes) of the connections of the pooled or non-blocking HTTP connector (optional; default = 0, i.e., OS default)").append("\n\n")
 				.append("\t").append(DswarmToolsStatics.HELP_PARAMETER).append(" : prints this help").append("\n\n")
 				.append("have fun with this tool!").append("\n\n")
 				.append("if you observe any problems with this tool or have questions about handling this tool etc. don't hesitate to contact us").append("\n")
@@ -54,14 +73,18 @@ public class DataModelsContentImportExecuter extends AbstractExecuter {
 		HELP = HELP_SB.toString();
 	}
 
-	private static void executeImport(final String dswarmBackendAPIBaseURI, final String dswarmGraphExtensionAPIBaseURI, final String importDirectoryName) throws DswarmToolsException {
+	private static void executeImport(final String dswarmBackendAPIBaseURI,
+	                                  final String dswarmGraphExtensionAPIBaseURI,
+	                                  final String importDirectoryName,
+	                                  final DswarmToolsConfig config) throws DswarmToolsException {
 
-		final DataModelsContentImporter dataModelsContentImporter = new DataModelsContentImporter(dswarmGraphExtensionAPIBaseURI, dswarmBackendAPIBaseURI);
+		final DataModelsContentImporter dataModelsContentImporter = new DataModelsContentImporter(dswarmGraphExtensionAPIBaseURI, dswarmBackendAPIBaseURI, config);
 
 		final Observable<Tuple2<String, String>> resultTupleObservable = dataModelsContentImporter.importObjectsContent(importDirectoryName);
 
 		final AtomicInteger counter = new AtomicInteger(0);
 		final AtomicInteger negativeCounter = new AtomicInteger(0);
+		final Map<String, String> statusReport = new ConcurrentSkipListMap<>();
 
 		resultTupleObservable
 				.doOnNext(resultTuple1 -> {
@@ -69,6 +92,8 @@ public class DataModelsContentImportExecuter extends AbstractExecuter {
 					final String dataModelIdentifier = resultTuple1._1;
 					final String statusCode = resultTuple1._2;
 
+					statusReport.put(dataModelIdentifier, statusCode);
+
 					if (STATUS_CODE_200.equals(statusCode)) {
 
 						counter.incrementAndGet();
@@ -81,13 +106,23 @@ public class DataModelsContentImportExecuter extends AbstractExecuter {
 						LOG.error("import of content from data model '{}' to '{}' fail with status code '{}'", dataModelIdentifier, dswarmGraphExtensionAPIBaseURI, statusCode);
 					}
 				})
+				.doOnCompleted(() -> logStatusReport(statusReport))
 				.doOnCompleted(() -> LOG.info("imported content from '{}' data models from '{}' to '{}' ('{}' failed)", counter.get(), importDirectoryName, dswarmGraphExtensionAPIBaseURI, negativeCounter.get()))
-				.doOnCompleted(() -> System.exit(0))
+				.doOnCompleted(AbstractExecuter::shutdownAndExit)
 				.toBlocking()
 				.toIterable()
 				.forEach(resultTuple -> LOG.info("response for data model '{}' = '{}'", resultTuple._1, resultTuple._2));
 	}
 
+	private static void logStatusReport(final Map<String, String> statusReport) {
+
+		final StringBuilder reportSB = new StringBuilder("data models content import report (data model = status):");
+
+		statusReport.forEach((dataModelIdentifier, statusCode) -> reportSB.append("\n\t").append(dataModelIdentifier).append(" = ").append(statusCode));
+
+		LOG.info(reportSB.toString());
+	}
+
 	public static void main(final String[] args) {
 
 		// 0. read path from arguments
@@ -115,16 +150,39 @@ public class DataModelsContentImportExecuter extends AbstractExecuter {
 		LOG.info("d:swarm graph extension API base URI = '{}'", dswarmGraphExtensionAPIBaseURI);
 		LOG.info("import directory name = '{}'", importDirectoryName);
 
+		final DswarmToolsConfig config = new DswarmToolsConfig(argMap);
+
+		LOG.info("import concurrency = '{}'", config.getImportConcurrency());
+		LOG.info("adaptive concurrency = '{}'", config.isAdaptiveConcurrency());
+		LOG.info("upload chunk size = '{}'", config.getUploadChunkSize());
+		LOG.info("import batch size = '{}'", config.getImportBatchSize());
+		LOG.info("import batch concurrency = '{}'", config.getImportBatchConcurrency());
+		LOG.info("import batch retries = '{}'", config.getImportBatchRetries());
+		LOG.info("resume = '{}'", config.isResume());
+		LOG.info("max open files = '{}'", config.getMaxOpenFiles());
+		LOG.info("import order = '{}'", config.getImportOrder());
+		LOG.info("stage buffer size = '{}'", config.getStageBufferSize());
+		LOG.info("HTTP connector = '{}'", config.getHttpConnector());
+		LOG.info("HTTP pool size = '{}'", config.getHttpPoolSize());
+		LOG.info("HTTP max connections per host = '{}'", config.getHttpMaxConnectionsPerHost());
+		LOG.info("socket send buffer size = '{}'", config.getSocketSendBufferSize());
+		LOG.info("socket receive buffer size = '{}'", config.getSocketReceiveBufferSize());
+
 		try {
 
-			executeImport(dswarmBackendAPIBaseURI, dswarmGraphExtensionAPIBaseURI, importDirectoryName);
+			executeImport(dswarmBackendAPIBaseURI, dswarmGraphExtensionAPIBaseURI, importDirectoryName, config);
 
-			System.exit(0);
+			shutdownAndExit();
 		} catch (final Exception e) {
 
 			LOG.error("something went wrong at import execution.", e);
 
 			System.out.println("\n" + HELP);
+		} finally {
+
+			// releases the (non-daemon) threads and the HTTP connections, if the execution was aborted
+			AbstractAPIClient.shutdown();
+			RxUtils.shutdown();
 		}
 	}
 }
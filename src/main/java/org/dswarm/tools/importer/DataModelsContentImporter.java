@@ -15,25 +15,37 @@
  */
 package org.dswarm.tools.importer;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import javaslang.Tuple;
 import javaslang.Tuple2;
 import javaslang.Tuple3;
+import javaslang.Tuple4;
+import javaslang.control.Either;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
 import rx.Scheduler;
 
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.DswarmToolsError;
 import org.dswarm.tools.DswarmToolsException;
 import org.dswarm.tools.DswarmToolsStatics;
 import org.dswarm.tools.apiclients.DswarmDataModelsAPIClient;
 import org.dswarm.tools.apiclients.DswarmGraphExtensionAPIClient;
+import org.dswarm.tools.utils.Compression;
 import org.dswarm.tools.utils.DswarmToolUtils;
+import org.dswarm.tools.utils.ExportFileScanner;
+import org.dswarm.tools.utils.ExportManifest;
+import org.dswarm.tools.utils.ImportJournal;
 import org.dswarm.tools.utils.RxUtils;
 
 /**
@@ -43,103 +55,266 @@ public final class DataModelsContentImporter {
 
 	private static final Logger LOG = LoggerFactory.getLogger(DataModelsContentImporter.class);
 
+	private static final double BYTES_PER_MB = 1024 * 1024;
+
+	private static final String STATUS_CODE_200 = "200";
+
 	private final String objectName;
-	private final Scheduler scheduler;
+	private final Scheduler jsonScheduler;
 	private final DswarmGraphExtensionAPIClient apiClient;
 	private final DswarmDataModelsAPIClient dswarmDataModelsAPIClient;
+	private final DswarmToolsConfig config;
 
-	public DataModelsContentImporter(final String dswarmGraphExtensionAPIBaseURI, final String dswarmBackendAPIBaseURI) {
+	public DataModelsContentImporter(final String dswarmGraphExtensionAPIBaseURI, final String dswarmBackendAPIBaseURI, final DswarmToolsConfig configArg) {
 
-		apiClient = new DswarmGraphExtensionAPIClient(dswarmGraphExtensionAPIBaseURI);
+		config = configArg;
+		apiClient = new DswarmGraphExtensionAPIClient(dswarmGraphExtensionAPIBaseURI, config);
 		objectName = DswarmToolsStatics.DATA_MODEL;
-		scheduler = RxUtils.getObjectReaderScheduler(objectName);
-		dswarmDataModelsAPIClient = new DswarmDataModelsAPIClient(dswarmBackendAPIBaseURI);
+		jsonScheduler = RxUtils.getJsonScheduler();
+		dswarmDataModelsAPIClient = new DswarmDataModelsAPIClient(dswarmBackendAPIBaseURI, config);
 	}
 
 	/**
+	 * Imports the content of the data models of the given import directory. Each successfully imported data model is recorded in the
+	 * import journal, i.e., a resumed import skips the data models that were already imported.
+	 *
 	 * @param importDirectoryName
-	 * @return v1 = data model identifier; v2 = data model metadata (JSON)
+	 * @return v1 = data model identifier; v2 = response status code (or failed status)
 	 */
 	public Observable<Tuple2<String, String>> importObjectsContent(final String importDirectoryName) throws DswarmToolsException {
 
-		final Observable<Tuple3<String, String, InputStream>> dataModelWriteRequestTripleObservable = prepareImport2(importDirectoryName);
+		final ImportJournal journal = AbstractImporter.openJournal(importDirectoryName, objectName, config.isResume());
+
+		// data model identifier -> checksum of the data model content file (for the journal)
+		final Map<String, Optional<String>> checksums = new ConcurrentHashMap<>();
+
+		// the data models, whose write request couldn't be generated, are reported as failed (without upload)
+		return prepareImport2(importDirectoryName, journal)
+				.publish(preparedImports -> Observable.merge(
+						apiClient.importDataModelsContent(preparedImports.filter(Either::isRight)
+								.map(Either::get)
+								.doOnNext(dataModelWriteRequestTuple -> checksums.put(dataModelWriteRequestTuple._1, dataModelWriteRequestTuple._4))),
+						preparedImports.filter(Either::isLeft)
+								.map(Either::getLeft)))
+				.doOnNext(importResultTuple -> {
 
-		return apiClient.importDataModelsContent(dataModelWriteRequestTripleObservable);
+					if (STATUS_CODE_200.equals(importResultTuple._2)) {
+
+						AbstractImporter.recordCompletion(journal, importResultTuple._1, checksums.getOrDefault(importResultTuple._1, Optional.empty()));
+					}
+				})
+				.doOnTerminate(() -> AbstractImporter.closeJournal(journal));
 	}
 
-	protected Observable<Tuple2<String, InputStream>> prepareImport(final String importDirectoryName) throws DswarmToolsException {
+	/**
+	 * plans the import, i.e., the data models content files are scanned from the import directory in the configured import order
+	 * (e.g. largest first, so that the longest uploads don't end up at the tail of a parallel import) and the data model identifiers
+	 * are taken from the export manifest (if available, only the files that are listed there are imported)
+	 *
+	 * @param importDirectoryName the import directory
+	 * @return v1 = data model identifier; v2 = data model content file; v3 = export manifest entry of the file (if available)
+	 * @throws DswarmToolsException
+	 */
+	protected List<Tuple3<String, Path, Optional<ExportManifest.Entry>>> prepareImport(final String importDirectoryName) throws DswarmToolsException {
+
+		final ExportManifest manifest = loadManifest(importDirectoryName);
+		final Map<String, ExportManifest.Entry> manifestEntries = manifest.getEntriesByFileName();
+
+		// prepare content (the files will be read, when the content is uploaded)
+		final List<Tuple3<String, Path, Optional<ExportManifest.Entry>>> importObjectTuples = ExportFileScanner
+				.scanToList(importDirectoryName, objectName, config.getImportOrder()).stream()
+				.filter(exportFile -> AbstractImporter.isImportable(exportFile, manifestEntries, objectName))
+				.map(exportFile -> {
+
+					final Path importObjectFile = exportFile.getFile();
+					final Optional<ExportManifest.Entry> optionalManifestEntry = Optional.ofNullable(manifestEntries.get(exportFile.getFileName()));
+
+					final String importObjectIdentifier = optionalManifestEntry.map(ExportManifest.Entry::getObjectIdentifier)
+							.orElseGet(() -> extractObjectIdentifier(importObjectFile));
 
-		final String[] importObjectFileNames = DswarmToolUtils.readFileNames(importDirectoryName);
+					return Tuple.of(importObjectIdentifier, importObjectFile, optionalManifestEntry);
+				})
+				.collect(Collectors.toList());
+
+		if (!manifest.isEmpty()) {
+
+			logImportPlan(importObjectTuples);
+		}
 
-		// read objects from files and prepare content
-		return Observable.from(importObjectFileNames)
-				.observeOn(scheduler)
-				.map(importObjectFileName -> readObjectFile(importDirectoryName, importObjectFileName))
-				.map(this::extractObjectIdentifier);
+		return importObjectTuples;
 	}
 
-	private Observable<Tuple3<String, String, InputStream>> prepareImport2(final String importDirectoryName) throws DswarmToolsException {
+	/**
+	 * generates the write requests of the data models (that weren't imported yet) in the order of the import plan, i.e., data model
+	 * metadata that needs to be retrieved (in parallel) doesn't reorder the write requests
+	 *
+	 * @return right: v1 = data model identifier; v2 = write request metadata (JSON); v3 = data model content file; v4 = expected
+	 * checksum (CRC32C) of the data model content file (optional); left (if the data model metadata couldn't be retrieved): v1 = data
+	 * model identifier; v2 = failed status
+	 */
+	private Observable<Either<Tuple2<String, String>, Tuple4<String, String, Path, Optional<String>>>> prepareImport2(final String importDirectoryName,
+	                                                                                                                final ImportJournal journal) throws DswarmToolsException {
 
-		// read objects from files and prepare content/generate data model write request metadata
-		final Observable<Tuple2<String, InputStream>> importObjectTupleObservable = prepareImport(importDirectoryName);
+		// prepare content/generate data model write request metadata (of the data models that weren't imported yet)
+		final List<Tuple3<String, Path, Optional<ExportManifest.Entry>>> importObjectTuples = prepareImport(importDirectoryName).stream()
+				.filter(importObjectTuple -> !journal.isCompleted(importObjectTuple._1, importObjectTuple._3.map(ExportManifest.Entry::getChecksum)))
+				.collect(Collectors.toList());
 
-		return importObjectTupleObservable
-				.flatMap(importObjectTuple -> {
+		if (journal.getCompletedObjectsCount() > 0) {
 
-					final String dataModelIdentifier = importObjectTuple._1;
-					final InputStream dataModelContentJSONIS = importObjectTuple._2;
+			LOG.info("'{}' data models are left for import (already imported data models are skipped)", importObjectTuples.size());
+		}
 
-					final Observable<Tuple2<String, String>> dataModelMetadataTupleObservable = dswarmDataModelsAPIClient.retrieveObject(dataModelIdentifier);
+		final boolean allRecordClassURIsAvailable = importObjectTuples.stream()
+				.allMatch(importObjectTuple -> importObjectTuple._3.flatMap(ExportManifest.Entry::getRecordClassURI).isPresent());
 
-					return dataModelMetadataTupleObservable.map(dataModelMetadataTuple -> {
+		final Observable<Map<String, String>> recordClassURIsObservable;
 
-						final String dataModelMetadataJSONString = dataModelMetadataTuple._2;
+		if (allRecordClassURIsAvailable) {
 
-						final String errorMessage = String.format("something went wrong, while deserializing data model '%s'", dataModelIdentifier);
+			LOG.info("took record class URIs of all '{}' data models from the export manifest, i.e., no data model metadata needs to be fetched", importObjectTuples.size());
 
-						final ObjectNode dataModelMetadataJSON = DswarmToolUtils.deserializeAsObjectNode(dataModelMetadataJSONString, errorMessage);
+			recordClassURIsObservable = Observable.just(Collections.emptyMap());
+		} else {
 
-						// generate data model write request metadata (JSON) with help of data model metadata (JSON)
-						final String dataModelWriteRequestMetadata = generateDataModelWriteRequestMetadata(dataModelIdentifier, dataModelMetadataJSON);
+			// fetch the metadata of all data models once upfront, i.e., the per-file work is just a lookup
+			recordClassURIsObservable = prefetchRecordClassURIs();
+		}
 
-						return Tuple.of(dataModelIdentifier, dataModelWriteRequestMetadata, dataModelContentJSONIS);
-					});
-				});
-	}
+		return recordClassURIsObservable
+				.flatMap(recordClassURIs -> Observable.from(importObjectTuples)
+						// generating the write request metadata is JSON work (the write requests are generated on demand of the upload
+						// stage, i.e., at most the stage buffer size of write requests is waiting for an upload slot)
+						.observeOn(jsonScheduler, config.getStageBufferSize())
+						.concatMapEager(importObjectTuple -> {
+
+							final String dataModelIdentifier = importObjectTuple._1;
+							final Path dataModelContentJSONFile = importObjectTuple._2;
+							final Optional<ExportManifest.Entry> optionalManifestEntry = importObjectTuple._3;
+
+							final String recordClassURI = optionalManifestEntry.flatMap(ExportManifest.Entry::getRecordClassURI)
+									.orElseGet(() -> recordClassURIs.get(dataModelIdentifier));
 
-	protected Tuple2<String, InputStream> extractObjectIdentifier(final Tuple2<String, InputStream> importObjectTriple) {
+							final Observable<String> recordClassURIObservable;
 
-		final String absoluteImportObjectFileName = importObjectTriple._1;
-		final InputStream importObjectJSONIS = importObjectTriple._2;
+							if (recordClassURI != null) {
 
-		final String[] split = absoluteImportObjectFileName.split("\\.");
+								recordClassURIObservable = Observable.just(recordClassURI);
+							} else {
 
-		final String importObjectIdentifier = split[split.length - 2];
+								// fallback: the data model wasn't part of the prefetched metadata
+								recordClassURIObservable = retrieveRecordClassURI(dataModelIdentifier);
+							}
 
-		return Tuple.of(importObjectIdentifier, importObjectJSONIS);
+							// the checksum of the file will be verified while uploading
+							final Optional<String> optionalChecksum = optionalManifestEntry.map(ExportManifest.Entry::getChecksum);
+
+							return recordClassURIObservable.map(recordClassURI1 -> {
+
+								// generate data model write request metadata (JSON) with help of data model metadata (record class URI)
+								final String dataModelWriteRequestMetadata = generateDataModelWriteRequestMetadata(dataModelIdentifier, recordClassURI1);
+
+								return Either.<Tuple2<String, String>, Tuple4<String, String, Path, Optional<String>>>right(
+										Tuple.of(dataModelIdentifier, dataModelWriteRequestMetadata, dataModelContentJSONFile, optionalChecksum));
+							}).onErrorReturn(throwable -> {
+
+								// e.g. the data model doesn't exist (anymore) or it has no record class, i.e., only this data model fails
+								LOG.error("couldn't generate write request of data model '{}'", dataModelIdentifier, throwable);
+
+								return Either.left(Tuple.of(dataModelIdentifier, DswarmGraphExtensionAPIClient.FAILED_STATUS));
+							});
+						}, 1, config.getRetrievalConcurrency()));
 	}
 
-	private static Tuple2<String, InputStream> readObjectFile(final String importDirectoryName, final String importObjectFileName) {
+	private ExportManifest loadManifest(final String importDirectoryName) throws DswarmToolsException {
 
 		try {
 
-			return Tuple.of(importDirectoryName + File.separator + importObjectFileName, DswarmToolUtils.readFromFile2(importDirectoryName, importObjectFileName));
+			return ExportManifest.load(importDirectoryName, objectName);
 		} catch (final IOException e) {
 
-			final String message = String.format("something went wrong, while trying to read file '%s' in folder '%s'", importObjectFileName, importDirectoryName);
+			final String message = String.format("something went wrong, while trying to read the %s export manifest in folder '%s'", objectName, importDirectoryName);
 
 			LOG.error(message, e);
 
-			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+			throw new DswarmToolsException(message, e);
 		}
 	}
 
-	private String generateDataModelWriteRequestMetadata(final String dataModelIdentifier, final ObjectNode dataModelMetadataJSON) {
+	private static void logImportPlan(final List<Tuple3<String, Path, Optional<ExportManifest.Entry>>> importObjectTuples) {
+
+		final List<ExportManifest.Entry> manifestEntries = importObjectTuples.stream()
+				.map(Tuple3::_3)
+				.filter(Optional::isPresent)
+				.map(Optional::get)
+				.collect(Collectors.toList());
+
+		final long fileSize = manifestEntries.stream().mapToLong(ExportManifest.Entry::getFileSize).sum();
+		final long recordCount = manifestEntries.stream().mapToLong(manifestEntry -> manifestEntry.getRecordCount().orElse(0L)).sum();
+
+		LOG.info("import plan: '{}' data models ('{}' listed in the export manifest with '{}' MB and '{}' records in total)",
+				importObjectTuples.size(), manifestEntries.size(), String.format("%.2f", fileSize / BYTES_PER_MB), recordCount);
+	}
+
+	/**
+	 * retrieves the metadata of all data models (short format listing + parallel retrieval of the full descriptions)
+	 *
+	 * @return data model identifier -> record class URI
+	 */
+	private Observable<Map<String, String>> prefetchRecordClassURIs() {
+
+		return dswarmDataModelsAPIClient.fetchObjects()
+				.flatMap(dataModelMetadataTuple -> {
+
+					final String dataModelIdentifier = dataModelMetadataTuple._1;
+
+					final Optional<String> optionalRecordClassURI = extractRecordClassURI(dataModelIdentifier, dataModelMetadataTuple._2);
+
+					return optionalRecordClassURI.map(recordClassURI -> Observable.just(Tuple.of(dataModelIdentifier, recordClassURI)))
+							.orElseGet(Observable::empty);
+				})
+				.toMap(Tuple2::_1, Tuple2::_2)
+				.doOnNext(recordClassURIs -> LOG.info("prefetched metadata of '{}' data models", recordClassURIs.size()));
+	}
+
+	private Observable<String> retrieveRecordClassURI(final String dataModelIdentifier) {
+
+		return dswarmDataModelsAPIClient.retrieveObject(dataModelIdentifier)
+				.map(dataModelMetadataTuple -> extractRecordClassURI(dataModelIdentifier, dataModelMetadataTuple._2)
+						.orElseThrow(() -> {
+
+							final String message = String.format("couldn't find record class URI of data model '%s'", dataModelIdentifier);
+
+							LOG.error(message);
+
+							return DswarmToolsError.wrap(new DswarmToolsException(message));
+						}));
+	}
+
+	private static Optional<String> extractRecordClassURI(final String dataModelIdentifier, final String dataModelMetadataJSONString) {
+
+		final String errorMessage = String.format("something went wrong, while deserializing data model '%s'", dataModelIdentifier);
+
+		final ObjectNode dataModelMetadataJSON = DswarmToolUtils.deserializeAsObjectNode(dataModelMetadataJSONString, errorMessage);
+
+		return DswarmToolUtils.findRecordClassURI(dataModelMetadataJSON);
+	}
+
+	protected String extractObjectIdentifier(final Path importObjectFile) {
+
+		final String importObjectFileName = importObjectFile.getFileName().toString();
+		final String uncompressedImportObjectFileName = Compression.detect(importObjectFileName).removeFileExtension(importObjectFileName);
+
+		final String[] split = uncompressedImportObjectFileName.split("\\.");
+
+		return split[split.length - 2];
+	}
+
+	private String generateDataModelWriteRequestMetadata(final String dataModelIdentifier, final String recordClassURI) {
 
 		final ObjectNode dataModelWriteRequestMetadataJSON = DswarmToolsStatics.MAPPER.createObjectNode();
 
 		final String dataModelURI = String.format(DswarmToolsStatics.DATA_MODEL_URI_TEMPLATE, dataModelIdentifier);
-		final String recordClassURI = DswarmToolUtils.getRecordClassURI(dataModelMetadataJSON);
 
 		dataModelWriteRequestMetadataJSON.put(DswarmToolsStatics.DATA_MODEL_URI_IDENTIFIER, dataModelURI)
 				.put(DswarmToolsStatics.RECORD_CLASS_URI_IDENTIFIER, recordClassURI)
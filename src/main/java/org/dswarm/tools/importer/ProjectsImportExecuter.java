@@ -24,8 +24,11 @@ import org.slf4j.LoggerFactory;
 import rx.Observable;
 
 import org.dswarm.tools.AbstractExecuter;
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.DswarmToolsException;
 import org.dswarm.tools.DswarmToolsStatics;
+import org.dswarm.tools.apiclients.AbstractAPIClient;
+import org.dswarm.tools.utils.RxUtils;
 
 /**
  * @author tgaengler
@@ -43,7 +46,15 @@ public class ProjectsImportExecuter extends AbstractExecuter {
 				.append("\t").append("this tool is intended for importing Projects to a running d:swarm instance (that have been exported from this or another d:swarm instance)").append("\n\n")
 				.append("following parameters are available for configuration at the moment:").append("\n\n")
 				.append("\t").append(DswarmToolsStatics.DSWARM_BACKEND_API_BASE_URI_PARAMETER).append(" : the d:swarm backend API base URI").append("\n")
-				.append("\t").append(DswarmToolsStatics.IMPORT_DIRECTORY_NAME_PARAMETER).append(" : the name of the import directory (absolute path), i.e., where the files are located that should be imported").append("\n\n")
+				.append("\t").append(DswarmToolsStatics.IMPORT_DIRECTORY_NAME_PARAMETER).append(" : the name of the import directory (absolute path), i.e., where the files are located that should be imported").append("\n")
+				.append("\t").append(DswarmToolsStatics.RESUME_PARAMETER).append(" : resume an aborted import, i.e., skip the projects that are listed in the import journal of the import directory (optional; default = false, i.e., a new import journal is started)").append("\n")
+				.append("\t").append(DswarmToolsStatics.IMPORT_ORDER_PARAMETER).append(" : the order in which the project files are imported, i.e., 'largest-first' (minimises the total time of a parallel import), 'smallest-first' (many quick wins early) or 'directory' (the directory is streamed without sorting) (optional; default = largest-first)").append("\n")
+				.append("\t").append(DswarmToolsStatics.STAGE_BUFFER_SIZE_PARAMETER).append(" : the maximum number of scanned project files (and prepared upload requests) that are buffered ahead of the uploads, i.e., the memory usage depends on this buffer size instead of the number of import files (optional; default = 16)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_CONNECTOR_PARAMETER).append(" : the HTTP connector of the requests, i.e., 'url-connection' (JDK default), 'pooled' (pool of keep-alive connections) or 'non-blocking' (NIO, i.e., no thread per in-flight request) (optional; default = url-connection)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_POOL_SIZE_PARAMETER).append(" : the maximum number of connections of the pooled or non-blocking HTTP connector (optional; default = retrieval + content retrieval + import (batch) concurrency)").append("\n")
+				.append("\t").append(DswarmToolsStatics.HTTP_MAX_CONNECTIONS_PER_HOST_PARAMETER).append(" : the maximum number of connections of the pooled or non-blocking HTTP connector to a single host (optional; default = HTTP pool size)").append("\n")
+				.append("\t").append(DswarmToolsStatics.SOCKET_SEND_BUFFER_SIZE_PARAMETER).append(" : the socket send buffer size (in bytes) of the connections of the pooled or non-blocking HTTP connector (optional; default = 0, i.e., OS default)").append("\n")
+				.append("\t").append(DswarmToolsStatics.SOCKET_RECEIVE_BUFFER_SIZE_PARAMETER).append(" : the socket receive buffer size (in bytes) of the connections of the pooled or non-blocking HTTP connector (optional; default = 0, i.e., OS default)").append("\n\n")
 				.append("\t").append(DswarmToolsStatics.HELP_PARAMETER).append(" : prints this help").append("\n\n")
 				.append("have fun with this tool!").append("\n\n")
 				.append("if you observe any problems with this tool or have questions about handling this tool etc. don't hesitate to contact us").append("\n")
@@ -52,9 +63,9 @@ public class ProjectsImportExecuter extends AbstractExecuter {
 		HELP = HELP_SB.toString();
 	}
 
-	private static void executeImport(final String dswarmBackendAPIBaseURI, final String importDirectoryName) throws DswarmToolsException {
+	private static void executeImport(final String dswarmBackendAPIBaseURI, final String importDirectoryName, final DswarmToolsConfig config) throws DswarmToolsException {
 
-		final ProjectsImporter projectsImporter = new ProjectsImporter(dswarmBackendAPIBaseURI);
+		final ProjectsImporter projectsImporter = new ProjectsImporter(dswarmBackendAPIBaseURI, config);
 
 		final Observable<Tuple2<String, String>> projectDescriptionTupleObservable = projectsImporter.importObjects(importDirectoryName);
 
@@ -64,7 +75,7 @@ public class ProjectsImportExecuter extends AbstractExecuter {
 				.doOnNext(projectDescriptionTuple -> counter.incrementAndGet())
 				.doOnNext(projectDescriptionTuple1 -> LOG.debug("imported project '{}' to '{}'", projectDescriptionTuple1._1, dswarmBackendAPIBaseURI))
 				.doOnCompleted(() -> LOG.info("imported '{}' projects from '{}' to '{}'", counter.get(), importDirectoryName, dswarmBackendAPIBaseURI))
-				.doOnCompleted(() -> System.exit(0))
+				.doOnCompleted(AbstractExecuter::shutdownAndExit)
 				.toBlocking().toIterable();
 
 		projectDescriptionTuples.forEach(projectDescriptionTuple2 -> LOG.trace("response for data model '{}' = '{}'", projectDescriptionTuple2._1, projectDescriptionTuple2._2));
@@ -95,14 +106,30 @@ public class ProjectsImportExecuter extends AbstractExecuter {
 		LOG.info("d:swarm backend API base URI = '{}'", dswarmBackendAPIBaseURI);
 		LOG.info("import directory name = '{}'", importDirectoryName);
 
+		final DswarmToolsConfig config = new DswarmToolsConfig(argMap);
+
+		LOG.info("resume = '{}'", config.isResume());
+		LOG.info("import order = '{}'", config.getImportOrder());
+		LOG.info("stage buffer size = '{}'", config.getStageBufferSize());
+		LOG.info("HTTP connector = '{}'", config.getHttpConnector());
+		LOG.info("HTTP pool size = '{}'", config.getHttpPoolSize());
+		LOG.info("HTTP max connections per host = '{}'", config.getHttpMaxConnectionsPerHost());
+		LOG.info("socket send buffer size = '{}'", config.getSocketSendBufferSize());
+		LOG.info("socket receive buffer size = '{}'", config.getSocketReceiveBufferSize());
+
 		try {
 
-			executeImport(dswarmBackendAPIBaseURI, importDirectoryName);
+			executeImport(dswarmBackendAPIBaseURI, importDirectoryName, config);
 		} catch (final Exception e) {
 
 			LOG.error("something went wrong at import execution.", e);
 
 			System.out.println("\n" + HELP);
+		} finally {
+
+			// releases the (non-daemon) threads and the HTTP connections, if the execution was aborted
+			AbstractAPIClient.shutdown();
+			RxUtils.shutdown();
 		}
 	}
 }
@@ -15,15 +15,18 @@
  */
 package org.dswarm.tools.importer;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import java.util.Optional;
+
 import javaslang.Tuple2;
+import javaslang.Tuple3;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
 
+import org.dswarm.tools.DswarmToolsConfig;
 import org.dswarm.tools.DswarmToolsStatics;
 import org.dswarm.tools.apiclients.DswarmProjectsAPIClient;
-import org.dswarm.tools.utils.DswarmToolUtils;
+import org.dswarm.tools.utils.ImportFile;
 
 /**
  * @author tgaengler
@@ -32,20 +35,14 @@ public final class ProjectsImporter extends AbstractImporter<DswarmProjectsAPICl
 
 	private static final Logger LOG = LoggerFactory.getLogger(ProjectsImporter.class);
 
-	public ProjectsImporter(final String dswarmBackendAPIBaseURI) {
+	public ProjectsImporter(final String dswarmBackendAPIBaseURI, final DswarmToolsConfig config) {
 
-		super(new DswarmProjectsAPIClient(dswarmBackendAPIBaseURI), DswarmToolsStatics.PROJECT);
+		super(new DswarmProjectsAPIClient(dswarmBackendAPIBaseURI, config), DswarmToolsStatics.PROJECT, config);
 	}
 
 	@Override
-	protected Observable<Tuple2<String, String>> executeImport(final Observable<Tuple2<String, String>> importObjectTupleObservable) {
+	protected Observable<Tuple2<String, String>> executeImport(final Observable<Tuple3<String, ImportFile, Optional<String>>> importObjectTupleObservable) {
 
 		return apiClient.importObjects(importObjectTupleObservable);
 	}
-
-	@Override
-	protected JsonNode deserializeObject(final String importObjectJSONString, final String errorMessage) {
-
-		return DswarmToolUtils.deserializeAsObjectNode(importObjectJSONString, errorMessage);
-	}
 }
@@ -0,0 +1,123 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The compression of export files. The compression of an import file is detected by its file extension.
+ *
+ * @author tgaengler
+ */
+public enum Compression {
+
+	NONE("") {
+		@Override
+		public OutputStream wrap(final OutputStream outputStream) {
+
+			return outputStream;
+		}
+
+		@Override
+		public InputStream wrap(final InputStream inputStream) {
+
+			return inputStream;
+		}
+	},
+
+	/**
+	 * block-parallel gzip compression, i.e., the content is compressed with all available cores
+	 */
+	GZIP(".gz") {
+		@Override
+		public OutputStream wrap(final OutputStream outputStream) {
+
+			return new ParallelGzipOutputStream(outputStream, RxUtils.getCompressorExecutorService(), BLOCK_SIZE, MAX_PENDING_BLOCKS);
+		}
+
+		@Override
+		public InputStream wrap(final InputStream inputStream) throws IOException {
+
+			return new GZIPInputStream(inputStream, BUFFER_SIZE);
+		}
+	};
+
+	private static final int BLOCK_SIZE = 1024 * 1024;
+	private static final int MAX_PENDING_BLOCKS = 2 * Runtime.getRuntime().availableProcessors();
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final String fileExtension;
+
+	Compression(final String fileExtensionArg) {
+
+		fileExtension = fileExtensionArg;
+	}
+
+	/**
+	 * @return the file extension (incl. leading '.') of files with this compression
+	 */
+	public String getFileExtension() {
+
+		return fileExtension;
+	}
+
+	/**
+	 * @param outputStream the stream of the (compressed) target
+	 * @return a stream that compresses the written content
+	 */
+	public abstract OutputStream wrap(final OutputStream outputStream);
+
+	/**
+	 * @param inputStream the stream of the (compressed) source
+	 * @return a stream that decompresses the read content
+	 * @throws IOException
+	 */
+	public abstract InputStream wrap(final InputStream inputStream) throws IOException;
+
+	/**
+	 * @param fileName the name of the file
+	 * @return the file name without the extension of this compression
+	 */
+	public String removeFileExtension(final String fileName) {
+
+		if (fileExtension.isEmpty() || !fileName.endsWith(fileExtension)) {
+
+			return fileName;
+		}
+
+		return fileName.substring(0, fileName.length() - fileExtension.length());
+	}
+
+	/**
+	 * @param fileName the name of the file
+	 * @return the compression of the file with the given name (detected by file extension)
+	 */
+	public static Compression detect(final String fileName) {
+
+		for (final Compression compression : values()) {
+
+			if (!compression.fileExtension.isEmpty() && fileName.endsWith(compression.fileExtension)) {
+
+				return compression;
+			}
+		}
+
+		return NONE;
+	}
+}
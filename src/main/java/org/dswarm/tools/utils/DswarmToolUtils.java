@@ -15,18 +15,29 @@
  */
 package org.dswarm.tools.utils;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.OptionalLong;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Charsets;
-import com.google.common.io.Files;
+import com.google.common.hash.HashingOutputStream;
+import com.google.common.io.CountingOutputStream;
+import javaslang.Tuple;
+import javaslang.Tuple2;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,28 +52,380 @@ public final class DswarmToolUtils {
 
 	private static final Logger LOG = LoggerFactory.getLogger(DswarmToolUtils.class);
 
+	private static final char RECORD_SEPARATOR = '\n';
+
 	public static void writeToFile(final String content, final String directory, final String fileName) throws IOException {
 
-		checkDirExistenceOrCreateMissingParts(directory);
+		writeToFile(content, directory, fileName, Compression.NONE);
+	}
 
-		final File file = org.apache.commons.io.FileUtils.getFile(directory, fileName);
+	public static void writeToFile(final String content, final String directory, final String fileName, final Compression compression) throws IOException {
+
+		writeToFile(content, directory, fileName, ExportFormat.JSON, compression);
+	}
+
+	/**
+	 * Writes the given JSON content into the given file. JSON content is written as is, otherwise it will be converted into the
+	 * given format.
+	 *
+	 * @param content     the JSON content that should be written
+	 * @param directory   the directory of the file
+	 * @param fileName    the name of the file
+	 * @param format      the format of the file
+	 * @param compression the compression of the file
+	 * @return the checksum (CRC32C) of the file (calculated while writing)
+	 * @throws IOException
+	 */
+	public static String writeToFile(final String content, final String directory, final String fileName, final ExportFormat format, final Compression compression) throws IOException {
+
+		final File file = prepareFile(directory, fileName);
+
+		if (format != ExportFormat.JSON) {
+
+			return writeToFile(DswarmToolsStatics.MAPPER.getFactory().createParser(content), file, format, compression)._2;
+		}
+
+		final HashingOutputStream fileOutputStream = newHashingFileOutputStream(file);
+
+		write(content, fileOutputStream, format, compression);
+
+		return fileOutputStream.hash().toString();
+	}
+
+	/**
+	 * Writes the given JSON content into the given stream (e.g. for packing it afterwards). JSON content is written as is, otherwise it
+	 * will be converted into the given format. The given stream will be closed afterwards.
+	 *
+	 * @param content      the JSON content that should be written
+	 * @param outputStream the target stream
+	 * @param format       the format of the content
+	 * @param compression  the compression of the content
+	 * @throws IOException
+	 */
+	public static void write(final String content, final OutputStream outputStream, final ExportFormat format, final Compression compression) throws IOException {
+
+		if (format != ExportFormat.JSON) {
+
+			try (final JsonParser parser = DswarmToolsStatics.MAPPER.getFactory().createParser(content);
+			     final JsonGenerator generator = format.createGenerator(compression.wrap(outputStream))) {
+
+				copyFromJSON(parser, generator, format);
+			}
+
+			return;
+		}
+
+		try (final OutputStream compressingOutputStream = compression.wrap(outputStream)) {
+
+			compressingOutputStream.write(content.getBytes(Charsets.UTF_8));
+		}
+	}
+
+	public static void writeToFile(final InputStream contentJSONStream, final String directory, final String fileName, final Compression compression) throws IOException {
+
+		writeToFile(contentJSONStream, directory, fileName, ExportFormat.JSON, compression);
+	}
+
+	/**
+	 * Copies the JSON content of the given stream token by token into the given file (in the given format; JSON is pretty-printed),
+	 * i.e., the content is never held completely in memory. The given stream will be closed afterwards.
+	 *
+	 * @param contentJSONStream the JSON content that should be written
+	 * @param directory         the directory of the file
+	 * @param fileName          the name of the file
+	 * @param format            the format of the file
+	 * @param compression       the compression of the file
+	 * @return v1 = the number of records (i.e. elements of the top-level array) of the content (empty, if the content is no array); v2 =
+	 * the checksum (CRC32C) of the file (calculated while writing, i.e., the file doesn't need to be read again)
+	 * @throws IOException
+	 */
+	public static Tuple2<OptionalLong, String> writeToFile(final InputStream contentJSONStream, final String directory, final String fileName, final ExportFormat format, final Compression compression) throws IOException {
+
+		final File file = prepareFile(directory, fileName);
+
+		return writeToFile(DswarmToolsStatics.MAPPER.getFactory().createParser(contentJSONStream), file, format, compression);
+	}
+
+	/**
+	 * Copies all tokens of the given parser to the given generator (i.e. converts the content from the parser format into the
+	 * generator format). Neither the parser nor the generator will be closed.
+	 *
+	 * @param parser    the source
+	 * @param generator the target
+	 * @return the number of records (i.e. elements of the top-level array) of the content (empty, if the content is no array)
+	 * @throws IOException
+	 */
+	public static OptionalLong copy(final JsonParser parser, final JsonGenerator generator) throws IOException {
+
+		final RecordCounter recordCounter = new RecordCounter();
+
+		JsonToken token;
+
+		while ((token = parser.nextToken()) != null) {
+
+			recordCounter.accept(token);
+
+			generator.copyCurrentEvent(parser);
+		}
+
+		generator.flush();
+
+		return recordCounter.getRecordCount();
+	}
+
+	/**
+	 * Copies the JSON content of the given parser into the given generator of the given format, i.e., for NDJSON, each record is
+	 * written as a separate line (see {@link #copyRecords(JsonParser, JsonGenerator)}). Neither the parser nor the generator will be
+	 * closed.
+	 *
+	 * @param jsonParser the source (JSON)
+	 * @param generator  the target
+	 * @param format     the format of the target
+	 * @return the number of records (i.e. elements of the top-level array) of the content (empty, if the content is no array)
+	 * @throws IOException
+	 */
+	public static OptionalLong copyFromJSON(final JsonParser jsonParser, final JsonGenerator generator, final ExportFormat format) throws IOException {
+
+		return format == ExportFormat.NDJSON ? copyRecords(jsonParser, generator) : copy(jsonParser, generator);
+	}
+
+	/**
+	 * Copies the content of the given parser of the given format into the given JSON generator, i.e., the records of NDJSON content
+	 * are written as elements of a top-level array. Neither the parser nor the generator will be closed.
+	 *
+	 * @param parser        the source
+	 * @param format        the format of the source
+	 * @param jsonGenerator the target (JSON)
+	 * @throws IOException
+	 */
+	public static void copyToJSON(final JsonParser parser, final ExportFormat format, final JsonGenerator jsonGenerator) throws IOException {
+
+		if (format != ExportFormat.NDJSON) {
+
+			copy(parser, jsonGenerator);
+
+			return;
+		}
+
+		jsonGenerator.writeStartArray();
+
+		while (parser.nextToken() != null) {
+
+			jsonGenerator.copyCurrentStructure(parser);
+		}
+
+		jsonGenerator.writeEndArray();
+		jsonGenerator.flush();
+	}
+
+	/**
+	 * Copies the content of the given parser record by record into the given generator, i.e., each element of the top-level array
+	 * (or the top-level value, if it is no array) is written as a separate line (NDJSON). The generator shouldn't write any root value
+	 * separator or pretty-print the content (since a record shouldn't contain any line break). Neither the parser nor the generator
+	 * will be closed.
+	 *
+	 * @param parser    the source
+	 * @param generator the target
+	 * @return the number of records (i.e. elements of the top-level array) of the content (empty, if the content is no array)
+	 * @throws IOException
+	 */
+	public static OptionalLong copyRecords(final JsonParser parser, final JsonGenerator generator) throws IOException {
+
+		return copyRecords(parser, generator, Optional.empty());
+	}
+
+	/**
+	 * @param optionalRecordOffsetsWriter writes the offset of each record (line), when the record is written
+	 */
+	private static OptionalLong copyRecords(final JsonParser parser,
+	                                        final JsonGenerator generator,
+	                                        final Optional<RecordOffsets.Writer> optionalRecordOffsetsWriter) throws IOException {
+
+		final JsonToken firstToken = parser.nextToken();
+
+		if (firstToken == null) {
+
+			return OptionalLong.empty();
+		}
+
+		if (firstToken != JsonToken.START_ARRAY) {
+
+			copyRecord(parser, generator, optionalRecordOffsetsWriter);
+
+			generator.flush();
+
+			return OptionalLong.empty();
+		}
+
+		long recordCount = 0;
+
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+
+			copyRecord(parser, generator, optionalRecordOffsetsWriter);
+
+			recordCount++;
+		}
+
+		generator.flush();
+
+		return OptionalLong.of(recordCount);
+	}
+
+	private static void copyRecord(final JsonParser parser, final JsonGenerator generator, final Optional<RecordOffsets.Writer> optionalRecordOffsetsWriter) throws IOException {
+
+		if (optionalRecordOffsetsWriter.isPresent()) {
+
+			optionalRecordOffsetsWriter.get().writeRecordStart(generator);
+		}
 
-		Files.write(content, file, Charsets.UTF_8);
+		generator.copyCurrentStructure(parser);
+		generator.writeRaw(RECORD_SEPARATOR);
 	}
 
-	public static String readFromFile(final String directory, final String fileName) throws IOException {
+	/**
+	 * @param contentJSON the JSON content
+	 * @return the number of records (i.e. elements of the top-level array) of the content (empty, if the content is no array)
+	 * @throws IOException
+	 */
+	public static OptionalLong countRecords(final String contentJSON) throws IOException {
 
-		final Path inputFilePath = Paths.get(directory + File.separator + fileName);
-		final byte[] inputBytes = java.nio.file.Files.readAllBytes(inputFilePath);
+		return countRecords(DswarmToolsStatics.MAPPER.getFactory().createParser(contentJSON));
+	}
+
+	/**
+	 * @param contentJSON the JSON content (UTF-8)
+	 * @return the number of records (i.e. elements of the top-level array) of the content (empty, if the content is no array)
+	 * @throws IOException
+	 */
+	public static OptionalLong countRecords(final byte[] contentJSON) throws IOException {
+
+		return countRecords(DswarmToolsStatics.MAPPER.getFactory().createParser(contentJSON));
+	}
+
+	private static OptionalLong countRecords(final JsonParser contentJSONParser) throws IOException {
+
+		try (final JsonParser parser = contentJSONParser) {
+
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+
+				return OptionalLong.empty();
+			}
+
+			long recordCount = 0;
+
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+
+				parser.skipChildren();
+
+				recordCount++;
+			}
+
+			return OptionalLong.of(recordCount);
+		}
+	}
+
+	/**
+	 * For NDJSON, the record offsets index of the file is written next to it (while the file is written).
+	 *
+	 * @return v1 = the number of records of the content; v2 = the checksum (CRC32C) of the file
+	 */
+	private static Tuple2<OptionalLong, String> writeToFile(final JsonParser contentJSONParser, final File file, final ExportFormat format, final Compression compression) throws IOException {
+
+		final HashingOutputStream fileOutputStream = newHashingFileOutputStream(file);
+		final CountingOutputStream contentOutputStream = new CountingOutputStream(compression.wrap(fileOutputStream));
+		final OptionalLong recordCount;
+
+		try (final JsonParser parser = contentJSONParser;
+		     final JsonGenerator generator = format.createGenerator(contentOutputStream)) {
+
+			if (format == ExportFormat.NDJSON) {
+
+				try (final RecordOffsets.Writer recordOffsetsWriter = new RecordOffsets.Writer(file.toPath(), contentOutputStream)) {
+
+					recordCount = copyRecords(parser, generator, Optional.of(recordOffsetsWriter));
+				}
+			} else {
+
+				recordCount = copy(parser, generator);
+			}
+		} catch (final IOException e) {
+
+			// don't leave incomplete content behind
+			java.nio.file.Files.deleteIfExists(file.toPath());
+			java.nio.file.Files.deleteIfExists(RecordOffsets.getFile(file.toPath()));
+
+			throw e;
+		}
+
+		// all bytes passed the hashing stream, when the generator (and thereby the file stream) is closed
+		return Tuple.of(recordCount, fileOutputStream.hash().toString());
+	}
+
+	/**
+	 * @return a (buffered) stream into the given file that calculates the checksum (CRC32C) of the written bytes
+	 */
+	private static HashingOutputStream newHashingFileOutputStream(final File file) throws IOException {
+
+		return new HashingOutputStream(ExportManifest.CHECKSUM_FUNCTION, new BufferedOutputStream(new FileOutputStream(file)));
+	}
+
+	/**
+	 * @param file the file
+	 * @return a stream of the (decompressed) content of the given file (the compression is detected by file extension)
+	 * @throws IOException
+	 */
+	public static InputStream newDecompressingInputStream(final Path file) throws IOException {
+
+		final Compression compression = Compression.detect(file.getFileName().toString());
+
+		final InputStream inputStream = new BufferedInputStream(java.nio.file.Files.newInputStream(file));
+
+		try {
+
+			return compression.wrap(inputStream);
+		} catch (final IOException e) {
+
+			inputStream.close();
 
-		return new String(inputBytes, Charsets.UTF_8);
+			throw e;
+		}
 	}
 
-	public static InputStream readFromFile2(final String directory, final String fileName) throws IOException {
+	/**
+	 * Reads the value of the given top-level field from the JSON object in the given (optionally compressed) file with a streaming
+	 * parser, i.e., the JSON object will only be parsed until the field is found (nested structures are skipped).
+	 *
+	 * @param jsonFile  the JSON file
+	 * @param fieldName the name of the top-level field
+	 * @return the (textual) value of the field or an empty optional, if the field is not present or no scalar value
+	 * @throws IOException
+	 */
+	public static Optional<String> readTopLevelField(final File jsonFile, final String fieldName) throws IOException {
+
+		final ExportFormat format = ExportFormat.detect(jsonFile.getName());
+
+		try (final JsonParser parser = format.createParser(newDecompressingInputStream(jsonFile.toPath()))) {
+
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+
+				return Optional.empty();
+			}
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+				final String currentFieldName = parser.getCurrentName();
+				final JsonToken valueToken = parser.nextToken();
+
+				if (fieldName.equals(currentFieldName)) {
 
-		final Path inputFilePath = Paths.get(directory + File.separator + fileName);
+					return valueToken.isScalarValue() ? Optional.of(parser.getText()) : Optional.empty();
+				}
 
-		return java.nio.file.Files.newInputStream(inputFilePath);
+				parser.skipChildren();
+			}
+		}
+
+		return Optional.empty();
 	}
 
 	public static String[] readFileNames(final String importDirectoryName) throws DswarmToolsException {
@@ -126,6 +489,72 @@ public final class DswarmToolUtils {
 		return schemaRecordClass.get(DswarmToolsStatics.URI_IDENTIFIER).asText();
 	}
 
+	/**
+	 * @param dataModelJSON the data model description (JSON)
+	 * @return the record class URI of the schema of the given data model or an empty optional, if the data model has no schema or
+	 * record class
+	 */
+	public static Optional<String> findRecordClassURI(final JsonNode dataModelJSON) {
+
+		return Optional.ofNullable(dataModelJSON.get(DswarmToolsStatics.SCHEMA_IDENTIFIER))
+				.map(schema -> schema.get(DswarmToolsStatics.RECORD_CLASS_IDENTIFIER))
+				.map(schemaRecordClass -> schemaRecordClass.get(DswarmToolsStatics.URI_IDENTIFIER))
+				.map(JsonNode::asText);
+	}
+
+	/**
+	 * Creates missing parts of the given directory and removes an existing file with the given name, since it might be a hard link
+	 * into a content-addressed export store (i.e. it must not be overwritten in place).
+	 */
+	private static File prepareFile(final String directory, final String fileName) throws IOException {
+
+		checkDirExistenceOrCreateMissingParts(directory);
+
+		final File file = org.apache.commons.io.FileUtils.getFile(directory, fileName);
+
+		java.nio.file.Files.deleteIfExists(file.toPath());
+
+		return file;
+	}
+
+	/**
+	 * counts the elements of the top-level array of a token stream
+	 */
+	private static final class RecordCounter {
+
+		private int depth = 0;
+		private long recordCount = 0;
+		private boolean array = false;
+
+		void accept(final JsonToken token) {
+
+			if (token.isStructStart()) {
+
+				if (depth == 0) {
+
+					array = token == JsonToken.START_ARRAY;
+				} else if (depth == 1) {
+
+					recordCount++;
+				}
+
+				depth++;
+			} else if (token.isStructEnd()) {
+
+				depth--;
+			} else if (depth == 1) {
+
+				// scalar array element
+				recordCount++;
+			}
+		}
+
+		OptionalLong getRecordCount() {
+
+			return array ? OptionalLong.of(recordCount) : OptionalLong.empty();
+		}
+	}
+
 	private static void checkDirExistenceOrCreateMissingParts(final String dirPath) {
 
 		final File dirFile = new File(dirPath);
@@ -0,0 +1,197 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.utils;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+
+import org.dswarm.tools.DswarmToolsError;
+import org.dswarm.tools.DswarmToolsException;
+
+/**
+ * Scans an import directory for the export files of an object type, i.e., '[OBJECT_NAME].[OBJECT_IDENTIFIER].[FORMAT][COMPRESSION]'
+ * (other files, e.g., export manifests, import journals, record offsets indices or temporary files, are skipped by the glob filter of
+ * the directory stream). The directory is read as stream, i.e., the listing is only collected, if the files should be sorted by
+ * their size.
+ *
+ * @author tgaengler
+ */
+public final class ExportFileScanner {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ExportFileScanner.class);
+
+	private static final double BYTES_PER_MB = 1024 * 1024;
+
+	/**
+	 * an export file (incl. its size)
+	 */
+	public static final class ExportFile {
+
+		private final Path file;
+		private final long size;
+
+		private ExportFile(final Path fileArg, final long sizeArg) {
+
+			file = fileArg;
+			size = sizeArg;
+		}
+
+		public Path getFile() {
+
+			return file;
+		}
+
+		public String getFileName() {
+
+			return file.getFileName().toString();
+		}
+
+		/**
+		 * @return the size (in bytes) of the file
+		 */
+		public long getSize() {
+
+			return size;
+		}
+	}
+
+	/**
+	 * @param objectName the object type
+	 * @return the glob that matches the export files of the given object type (of all export formats and compressions), e.g.,
+	 * 'datamodel.*{.json,.sml,.ndjson}{,.gz}'
+	 */
+	public static String buildGlob(final String objectName) {
+
+		final String formatFileExtensions = Stream.of(ExportFormat.values()).map(ExportFormat::getFileExtension).collect(Collectors.joining(","));
+		final String compressionFileExtensions = Stream.of(Compression.values()).map(Compression::getFileExtension).collect(Collectors.joining(","));
+
+		return String.format("%s.*{%s}{%s}", objectName, formatFileExtensions, compressionFileExtensions);
+	}
+
+	/**
+	 * @param importDirectoryName the import directory
+	 * @param objectName          the object type
+	 * @param order               the order of the export files
+	 * @return the export files of the given object type in the given order (the directory is read, when the observable is subscribed)
+	 */
+	public static Observable<ExportFile> scan(final String importDirectoryName, final String objectName, final ImportOrder order) {
+
+		final Path importDirectory = Paths.get(importDirectoryName);
+
+		final Observable<ExportFile> exportFileObservable = Observable.using(
+				() -> openDirectoryStream(importDirectory, objectName),
+				directoryStream -> Observable.from(directoryStream)
+						.map(ExportFileScanner::readSize),
+				ExportFileScanner::closeDirectoryStream);
+
+		return order.getComparator()
+				.map(comparator -> exportFileObservable.toSortedList(comparator::compare)
+						.doOnNext(exportFiles -> logScan(importDirectory, objectName, order, exportFiles))
+						.flatMap(Observable::from))
+				.orElse(exportFileObservable);
+	}
+
+	/**
+	 * @param importDirectoryName the import directory
+	 * @param objectName          the object type
+	 * @param order               the order of the export files
+	 * @return the export files of the given object type in the given order
+	 * @throws DswarmToolsException
+	 */
+	public static List<ExportFile> scanToList(final String importDirectoryName, final String objectName, final ImportOrder order) throws DswarmToolsException {
+
+		try {
+
+			return scan(importDirectoryName, objectName, order).toList().toBlocking().single();
+		} catch (final DswarmToolsError e) {
+
+			if (e.getCause() instanceof DswarmToolsException) {
+
+				throw (DswarmToolsException) e.getCause();
+			}
+
+			throw e;
+		}
+	}
+
+	private static DirectoryStream<Path> openDirectoryStream(final Path importDirectory, final String objectName) {
+
+		if (!Files.isDirectory(importDirectory)) {
+
+			final String message = String.format("'%s' is no directory - please specify a folder as import directory", importDirectory);
+
+			LOG.error(message);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message));
+		}
+
+		try {
+
+			return Files.newDirectoryStream(importDirectory, buildGlob(objectName));
+		} catch (final IOException e) {
+
+			final String message = String.format("something went wrong, while trying to read directory '%s'", importDirectory);
+
+			LOG.error(message, e);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+		}
+	}
+
+	private static ExportFile readSize(final Path file) {
+
+		try {
+
+			return new ExportFile(file, Files.size(file));
+		} catch (final IOException e) {
+
+			final String message = String.format("something went wrong, while trying to read the size of file '%s'", file);
+
+			LOG.error(message, e);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+		}
+	}
+
+	private static void closeDirectoryStream(final DirectoryStream<Path> directoryStream) {
+
+		try {
+
+			directoryStream.close();
+		} catch (final IOException e) {
+
+			LOG.error("couldn't close directory stream", e);
+		}
+	}
+
+	private static void logScan(final Path importDirectory, final String objectName, final ImportOrder order, final List<ExportFile> exportFiles) {
+
+		final long size = exportFiles.stream().mapToLong(ExportFile::getSize).sum();
+
+		LOG.info("found '{}' {} export files ('{}' MB in total) in '{}'; import order = '{}'",
+				exportFiles.size(), objectName, String.format("%.2f", size / BYTES_PER_MB), importDirectory, order);
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import org.dswarm.tools.DswarmToolsStatics;
+
+/**
+ * The (serialization) format of export files. The format of an import file is detected by its file extension (after removing the
+ * compression extension).
+ *
+ * @author tgaengler
+ */
+public enum ExportFormat {
+
+	/**
+	 * pretty-printed (textual) JSON
+	 */
+	JSON(".json", DswarmToolsStatics.MAPPER.getFactory()) {
+		@Override
+		public JsonGenerator createGenerator(final OutputStream outputStream) throws IOException {
+
+			return super.createGenerator(outputStream).useDefaultPrettyPrinter();
+		}
+	},
+
+	/**
+	 * binary JSON (Jackson Smile), i.e., the same data model as JSON, but without textual (de-)serialization costs; repeated field
+	 * names and (short) string values (e.g. URIs of GDM content) are only written once
+	 */
+	SMILE(".sml", new SmileFactory().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)),
+
+	/**
+	 * newline-delimited JSON, i.e., one (compact) record (element of the top-level array) per line, i.e., the content can be
+	 * processed record by record (e.g. split or sampled) with help of the record offsets index (see {@link RecordOffsets})
+	 */
+	NDJSON(".ndjson", new JsonFactory().setRootValueSeparator(null));
+
+	private final String fileExtension;
+	private final JsonFactory factory;
+
+	ExportFormat(final String fileExtensionArg, final JsonFactory factoryArg) {
+
+		fileExtension = fileExtensionArg;
+		factory = factoryArg;
+	}
+
+	/**
+	 * @return the file extension (incl. leading '.') of files with this format
+	 */
+	public String getFileExtension() {
+
+		return fileExtension;
+	}
+
+	/**
+	 * @param outputStream the target stream
+	 * @return a generator that writes this format into the given stream (closing the generator closes the stream)
+	 * @throws IOException
+	 */
+	public JsonGenerator createGenerator(final OutputStream outputStream) throws IOException {
+
+		return factory.createGenerator(outputStream, JsonEncoding.UTF8);
+	}
+
+	/**
+	 * @param inputStream the source stream
+	 * @return a parser that reads this format from the given stream (closing the parser closes the stream)
+	 * @throws IOException
+	 */
+	public JsonParser createParser(final InputStream inputStream) throws IOException {
+
+		return factory.createParser(inputStream);
+	}
+
+	/**
+	 * @param fileName the name of the file (optionally incl. compression extension)
+	 * @return the format of the file with the given name (detected by file extension; default = JSON)
+	 */
+	public static ExportFormat detect(final String fileName) {
+
+		final String uncompressedFileName = Compression.detect(fileName).removeFileExtension(fileName);
+
+		for (final ExportFormat exportFormat : values()) {
+
+			if (uncompressedFileName.endsWith(exportFormat.fileExtension)) {
+
+				return exportFormat;
+			}
+		}
+
+		return JSON;
+	}
+}
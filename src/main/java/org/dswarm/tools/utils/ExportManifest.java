@@ -0,0 +1,402 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.tools.DswarmToolsStatics;
+
+/**
+ * The manifest (index) of an export, i.e., identifier, export file name, content hash, content size, file size, file checksum
+ * (CRC32C), record count, record class URI and timestamp of the last change of each exported object. It is stored as
+ * '[OBJECT_NAME]-manifest.json' in the export directory (i.e. there is one manifest per object type). It is utilised at the next
+ * (incremental) export to skip the rewrite of unchanged objects and at import to plan the import, to check the integrity of the
+ * import files and to skip metadata lookups.
+ *
+ * @author tgaengler
+ */
+public final class ExportManifest {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ExportManifest.class);
+
+	private static final String MANIFEST_FILE_NAME_SUFFIX = "-manifest.json";
+	private static final String FILE_IDENTIFIER = "file";
+	private static final String HASH_IDENTIFIER = "hash";
+	private static final String SIZE_IDENTIFIER = "size";
+	private static final String FILE_SIZE_IDENTIFIER = "file_size";
+	private static final String CHECKSUM_IDENTIFIER = "crc32c";
+	private static final String RECORD_COUNT_IDENTIFIER = "record_count";
+	private static final String RECORD_CLASS_URI_IDENTIFIER = "record_class_uri";
+	private static final String TIMESTAMP_IDENTIFIER = "timestamp";
+
+	private static final double BYTES_PER_MB = 1024 * 1024;
+
+	/**
+	 * the hash function of the export file checksums
+	 */
+	public static final HashFunction CHECKSUM_FUNCTION = Hashing.crc32c();
+
+	/**
+	 * the manifest entry of an exported object
+	 */
+	public static final class Entry {
+
+		private final String objectIdentifier;
+		private final String fileName;
+		private final String hash;
+		private final long size;
+		private final long fileSize;
+		private final String checksum;
+		private final Long recordCount;
+		private final String recordClassURI;
+		private final String timestamp;
+
+		public Entry(final String objectIdentifierArg,
+		             final String fileNameArg,
+		             final String hashArg,
+		             final long sizeArg,
+		             final long fileSizeArg,
+		             final String checksumArg,
+		             final Long recordCountArg,
+		             final String recordClassURIArg) {
+
+			this(objectIdentifierArg, fileNameArg, hashArg, sizeArg, fileSizeArg, checksumArg, recordCountArg, recordClassURIArg, Instant.now().toString());
+		}
+
+		private Entry(final String objectIdentifierArg,
+		              final String fileNameArg,
+		              final String hashArg,
+		              final long sizeArg,
+		              final long fileSizeArg,
+		              final String checksumArg,
+		              final Long recordCountArg,
+		              final String recordClassURIArg,
+		              final String timestampArg) {
+
+			objectIdentifier = objectIdentifierArg;
+			fileName = fileNameArg;
+			hash = hashArg;
+			size = sizeArg;
+			fileSize = fileSizeArg;
+			checksum = checksumArg;
+			recordCount = recordCountArg;
+			recordClassURI = recordClassURIArg;
+			timestamp = timestampArg;
+		}
+
+		public String getObjectIdentifier() {
+
+			return objectIdentifier;
+		}
+
+		public String getFileName() {
+
+			return fileName;
+		}
+
+		/**
+		 * @return the content hash (SHA-256) of the exported object (as retrieved; only calculated for incremental exports and
+		 * content-addressed export stores)
+		 */
+		public String getHash() {
+
+			return hash;
+		}
+
+		/**
+		 * @return the content size (in bytes) of the exported object (as retrieved)
+		 */
+		public long getSize() {
+
+			return size;
+		}
+
+		/**
+		 * @return the size (in bytes) of the export file
+		 */
+		public long getFileSize() {
+
+			return fileSize;
+		}
+
+		/**
+		 * @return the checksum (CRC32C) of the export file
+		 */
+		public String getChecksum() {
+
+			return checksum;
+		}
+
+		/**
+		 * @return the number of records (i.e. elements of the top-level array) of the exported object (if it is an array)
+		 */
+		public Optional<Long> getRecordCount() {
+
+			return Optional.ofNullable(recordCount);
+		}
+
+		public Optional<String> getRecordClassURI() {
+
+			return Optional.ofNullable(recordClassURI);
+		}
+
+		private ObjectNode toJSON() {
+
+			final ObjectNode entryJSON = DswarmToolsStatics.MAPPER.createObjectNode()
+					.put(DswarmToolsStatics.UUID_IDENTIFIER, objectIdentifier)
+					.put(FILE_IDENTIFIER, fileName);
+
+			if (hash != null) {
+
+				entryJSON.put(HASH_IDENTIFIER, hash);
+			}
+
+			entryJSON.put(SIZE_IDENTIFIER, size)
+					.put(FILE_SIZE_IDENTIFIER, fileSize)
+					.put(CHECKSUM_IDENTIFIER, checksum);
+
+			if (recordCount != null) {
+
+				entryJSON.put(RECORD_COUNT_IDENTIFIER, recordCount);
+			}
+
+			if (recordClassURI != null) {
+
+				entryJSON.put(RECORD_CLASS_URI_IDENTIFIER, recordClassURI);
+			}
+
+			return entryJSON.put(TIMESTAMP_IDENTIFIER, timestamp);
+		}
+
+		private static Optional<Entry> fromJSON(final JsonNode entryJSON) {
+
+			final JsonNode objectIdentifier = entryJSON.get(DswarmToolsStatics.UUID_IDENTIFIER);
+			final JsonNode fileName = entryJSON.get(FILE_IDENTIFIER);
+
+			if (objectIdentifier == null || fileName == null) {
+
+				return Optional.empty();
+			}
+
+			final JsonNode recordCount = entryJSON.get(RECORD_COUNT_IDENTIFIER);
+			final JsonNode recordClassURI = entryJSON.get(RECORD_CLASS_URI_IDENTIFIER);
+
+			return Optional.of(new Entry(objectIdentifier.asText(),
+					fileName.asText(),
+					entryJSON.path(HASH_IDENTIFIER).asText(null),
+					entryJSON.path(SIZE_IDENTIFIER).asLong(),
+					entryJSON.path(FILE_SIZE_IDENTIFIER).asLong(),
+					entryJSON.path(CHECKSUM_IDENTIFIER).asText(null),
+					recordCount != null ? recordCount.asLong() : null,
+					recordClassURI != null ? recordClassURI.asText() : null,
+					entryJSON.path(TIMESTAMP_IDENTIFIER).asText()));
+		}
+	}
+
+	private final String objectName;
+	private final Path directory;
+	private final Path manifestFile;
+
+	/**
+	 * object identifier -> manifest entry
+	 */
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * the identifiers of the objects that were written or skipped (as unchanged) by the current export
+	 */
+	private final Set<String> exportedObjects = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong writes = new AtomicLong();
+	private final AtomicLong writtenBytes = new AtomicLong();
+	private final AtomicLong avoidedWrites = new AtomicLong();
+	private final AtomicLong avoidedBytes = new AtomicLong();
+
+	private ExportManifest(final String objectNameArg, final Path directoryArg) {
+
+		objectName = objectNameArg;
+		directory = directoryArg;
+		manifestFile = directory.resolve(objectName + MANIFEST_FILE_NAME_SUFFIX);
+	}
+
+	/**
+	 * @param directoryName the export (or import) directory
+	 * @param objectName    the object type
+	 * @return the manifest of the last export of this object type into the given directory (or an empty manifest, if there is none)
+	 * @throws IOException
+	 */
+	public static ExportManifest load(final String directoryName, final String objectName) throws IOException {
+
+		final ExportManifest manifest = new ExportManifest(objectName, Paths.get(directoryName));
+
+		if (!Files.isRegularFile(manifest.manifestFile)) {
+
+			LOG.info("no {} export manifest at '{}'", objectName, manifest.manifestFile);
+
+			return manifest;
+		}
+
+		final JsonNode manifestJSON = DswarmToolsStatics.MAPPER.readTree(manifest.manifestFile.toFile());
+
+		for (final JsonNode entryJSON : manifestJSON) {
+
+			Entry.fromJSON(entryJSON).ifPresent(entry -> manifest.entries.put(entry.getObjectIdentifier(), entry));
+		}
+
+		LOG.info("loaded {} export manifest with '{}' entries from '{}'", objectName, manifest.entries.size(), manifest.manifestFile);
+
+		return manifest;
+	}
+
+	public boolean isEmpty() {
+
+		return entries.isEmpty();
+	}
+
+	/**
+	 * @return file name -> manifest entry
+	 */
+	public Map<String, Entry> getEntriesByFileName() {
+
+		final Map<String, Entry> entriesByFileName = new TreeMap<>();
+
+		entries.values().forEach(entry -> entriesByFileName.put(entry.getFileName(), entry));
+
+		return entriesByFileName;
+	}
+
+	/**
+	 * @param objectIdentifier the object identifier
+	 * @param fileName         the (current) export file name of the object
+	 * @param hash             the (current) content hash of the object
+	 * @return true, if the object was exported with the same content into the same (still existing) file before
+	 */
+	public boolean isUnchanged(final String objectIdentifier, final String fileName, final String hash) {
+
+		final Entry entry = entries.get(objectIdentifier);
+
+		return entry != null
+				&& fileName.equals(entry.getFileName())
+				&& hash.equals(entry.getHash())
+				&& Files.isRegularFile(directory.resolve(fileName));
+	}
+
+	/**
+	 * @param entry the manifest entry of the (completely written) export file of an object
+	 * @return the previous manifest entry of the object (if any)
+	 */
+	public Optional<Entry> recordWrite(final Entry entry) {
+
+		final Entry previousEntry = entries.put(entry.getObjectIdentifier(), entry);
+		exportedObjects.add(entry.getObjectIdentifier());
+
+		writes.incrementAndGet();
+		writtenBytes.addAndGet(entry.getSize());
+
+		return Optional.ofNullable(previousEntry);
+	}
+
+	public void recordSkip(final String objectIdentifier, final long size) {
+
+		exportedObjects.add(objectIdentifier);
+
+		avoidedWrites.incrementAndGet();
+		avoidedBytes.addAndGet(size);
+	}
+
+	/**
+	 * removes the entries of the objects that were neither written nor skipped (as unchanged) by the current export, i.e., of objects
+	 * that are not exported anymore (the manifest only lists the objects of the last export)
+	 */
+	public void removeStaleEntries() {
+
+		final int entriesBefore = entries.size();
+
+		entries.keySet().retainAll(exportedObjects);
+
+		final int removedEntries = entriesBefore - entries.size();
+
+		if (removedEntries > 0) {
+
+			LOG.info("removed '{}' entries of {}s that were not exported anymore from the {} export manifest", removedEntries, objectName, objectName);
+		}
+	}
+
+	/**
+	 * writes the manifest (sorted by object identifier) to a temporary file first and replaces the old manifest afterwards, i.e.,
+	 * an interrupted export never leaves a broken manifest behind
+	 *
+	 * @throws IOException
+	 */
+	public void save() throws IOException {
+
+		final ArrayNode manifestJSON = DswarmToolsStatics.MAPPER.createArrayNode();
+
+		new TreeMap<>(entries).values().forEach(entry -> manifestJSON.add(entry.toJSON()));
+
+		final Path temporaryManifestFile = directory.resolve("." + manifestFile.getFileName() + ".tmp");
+
+		DswarmToolsStatics.MAPPER.writerWithDefaultPrettyPrinter().writeValue(temporaryManifestFile.toFile(), manifestJSON);
+
+		Files.move(temporaryManifestFile, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		LOG.info("wrote {} export manifest with '{}' entries to '{}'", objectName, entries.size(), manifestFile);
+	}
+
+	/**
+	 * logs the number of (avoided) writes and bytes of an incremental export
+	 */
+	public void logIncrementalExportSummary() {
+
+		LOG.info("incremental {} export: wrote '{}' new or changed {}s ('{}' MB); skipped '{}' unchanged {}s (avoided '{}' MB of writes)",
+				objectName, writes.get(), objectName, formatMB(writtenBytes.get()), avoidedWrites.get(), objectName, formatMB(avoidedBytes.get()));
+	}
+
+	/**
+	 * @param file the (export) file
+	 * @return the checksum (CRC32C) of the given file
+	 * @throws IOException
+	 */
+	public static String checksum(final Path file) throws IOException {
+
+		return com.google.common.io.Files.asByteSource(file.toFile()).hash(CHECKSUM_FUNCTION).toString();
+	}
+
+	private static String formatMB(final long bytes) {
+
+		return String.format("%.2f", bytes / BYTES_PER_MB);
+	}
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.utils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+/**
+ * An export file that should be imported, i.e., either a separate file or the content of an object of a packed archive (a slice of
+ * a memory-mapped segment). The format and the compression of the content are detected by the file name.
+ *
+ * @author tgaengler
+ */
+public final class ImportFile {
+
+	private final String fileName;
+	private final Path file;
+	private final ByteBuffer content;
+
+	private ImportFile(final String fileNameArg, final Path fileArg, final ByteBuffer contentArg) {
+
+		fileName = fileNameArg;
+		file = fileArg;
+		content = contentArg;
+	}
+
+	public static ImportFile of(final Path file) {
+
+		return new ImportFile(file.getFileName().toString(), file, null);
+	}
+
+	/**
+	 * @param fileName the name of the export file
+	 * @param content  the content of the export file (e.g. a slice of a packed archive segment)
+	 * @return an import file that is not backed by a separate file
+	 */
+	public static ImportFile of(final String fileName, final ByteBuffer content) {
+
+		return new ImportFile(fileName, null, content);
+	}
+
+	public String getFileName() {
+
+		return fileName;
+	}
+
+	/**
+	 * @return the (separate) file or an empty optional, if the content is part of a packed archive
+	 */
+	public Optional<Path> getFile() {
+
+		return Optional.ofNullable(file);
+	}
+
+	/**
+	 * @return an independent view of the content (i.e. its position can be changed without affecting any other reader) or an empty
+	 * optional, if the content is stored in a separate file
+	 */
+	public Optional<ByteBuffer> getContent() {
+
+		return Optional.ofNullable(content).map(ByteBuffer::duplicate);
+	}
+
+	/**
+	 * @return a stream of the raw (i.e. still compressed) content
+	 * @throws IOException
+	 */
+	public InputStream openStream() throws IOException {
+
+		if (content != null) {
+
+			return new ByteBufferBackedInputStream(content.duplicate());
+		}
+
+		return new BufferedInputStream(Files.newInputStream(file));
+	}
+
+	@Override
+	public String toString() {
+
+		return file != null ? file.toString() : String.format("%s (packed)", fileName);
+	}
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The (append-only) import journal of an object type in an import directory ('[OBJECT_NAME]-import-journal.tsv'), i.e., one line
+ * ('[OBJECT_IDENTIFIER]\t[CHECKSUM]') per successfully imported object. Each line is flushed right after the import of its object
+ * completed, i.e., the journal survives an abort of the import run. A resumed import run skips all objects that are listed in the
+ * journal (with the same checksum (CRC32C) of the export file, if known), i.e., it continues where the aborted run stopped.
+ *
+ * @author tgaengler
+ */
+public final class ImportJournal implements Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ImportJournal.class);
+
+	private static final String JOURNAL_FILE_NAME_SUFFIX = "-import-journal.tsv";
+	private static final String SEPARATOR = "\t";
+	private static final String NO_CHECKSUM = "-";
+	private static final char LINE_SEPARATOR = '\n';
+
+	private final Path journalFile;
+	private final Map<String, String> completedObjects;
+	private final Writer journalWriter;
+
+	private int recordedObjects = 0;
+
+	private ImportJournal(final Path journalFileArg, final Map<String, String> completedObjectsArg, final Writer journalWriterArg) {
+
+		journalFile = journalFileArg;
+		completedObjects = completedObjectsArg;
+		journalWriter = journalWriterArg;
+	}
+
+	/**
+	 * Opens the import journal of the given object type in the given import directory. A new import run (i.e. no resume) starts a new
+	 * journal.
+	 *
+	 * @param importDirectoryName the import directory
+	 * @param objectName          the object type
+	 * @param resume              true, if the objects of the existing journal should be skipped
+	 * @return the import journal
+	 * @throws IOException
+	 */
+	public static ImportJournal open(final String importDirectoryName, final String objectName, final boolean resume) throws IOException {
+
+		final Path journalFile = Paths.get(importDirectoryName, objectName + JOURNAL_FILE_NAME_SUFFIX);
+		final Map<String, String> completedObjects = new HashMap<>();
+
+		if (resume && Files.isRegularFile(journalFile)) {
+
+			for (final String line : Files.readAllLines(journalFile, StandardCharsets.UTF_8)) {
+
+				final String[] entry = line.split(SEPARATOR);
+
+				// an incomplete last line (i.e. the import run was aborted, while writing it) is ignored
+				if (entry.length == 2) {
+
+					completedObjects.put(entry[0], entry[1]);
+				}
+			}
+
+			terminateLastLine(journalFile);
+
+			LOG.info("resuming {} import with '{}' already imported objects from import journal '{}'", objectName, completedObjects.size(), journalFile);
+		}
+
+		final Writer journalWriter = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				resume ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+
+		return new ImportJournal(journalFile, Collections.unmodifiableMap(completedObjects), journalWriter);
+	}
+
+	/**
+	 * @param objectIdentifier the object identifier
+	 * @param optionalChecksum the checksum (CRC32C) of the export file of the object (if known)
+	 * @return true, if the object was already imported (from an export file with the same checksum, if known)
+	 */
+	public boolean isCompleted(final String objectIdentifier, final Optional<String> optionalChecksum) {
+
+		final String checksum = completedObjects.get(objectIdentifier);
+
+		return checksum != null && checksum.equals(optionalChecksum.orElse(NO_CHECKSUM));
+	}
+
+	/**
+	 * @return the number of objects that were already imported (by earlier import runs)
+	 */
+	public int getCompletedObjectsCount() {
+
+		return completedObjects.size();
+	}
+
+	/**
+	 * appends the given (successfully imported) object to the journal
+	 *
+	 * @param objectIdentifier the object identifier
+	 * @param optionalChecksum the checksum (CRC32C) of the export file of the object (if known)
+	 * @throws IOException
+	 */
+	public synchronized void recordCompletion(final String objectIdentifier, final Optional<String> optionalChecksum) throws IOException {
+
+		journalWriter.write(objectIdentifier + SEPARATOR + optionalChecksum.orElse(NO_CHECKSUM) + LINE_SEPARATOR);
+		journalWriter.flush();
+
+		recordedObjects++;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+
+		journalWriter.close();
+
+		LOG.info("recorded '{}' imported objects in import journal '{}'", recordedObjects, journalFile);
+	}
+
+	/**
+	 * appends a line separator, if the last line of the given journal is incomplete (so that the next entry starts at a new line)
+	 */
+	private static void terminateLastLine(final Path journalFile) throws IOException {
+
+		try (final FileChannel journalChannel = FileChannel.open(journalFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+			final long size = journalChannel.size();
+
+			if (size == 0) {
+
+				return;
+			}
+
+			final ByteBuffer lastByte = ByteBuffer.allocate(1);
+
+			journalChannel.read(lastByte, size - 1);
+
+			if (lastByte.get(0) != LINE_SEPARATOR) {
+
+				journalChannel.write(ByteBuffer.wrap(new byte[] { LINE_SEPARATOR }), size);
+			}
+		}
+	}
+}
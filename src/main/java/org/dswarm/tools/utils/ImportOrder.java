@@ -0,0 +1,59 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.utils;
+
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * The order in which the export files of an import directory are imported.
+ *
+ * @author tgaengler
+ */
+public enum ImportOrder {
+
+	/**
+	 * the order of the directory listing, i.e., the files are streamed from the directory without collecting (and sorting) the
+	 * listing upfront
+	 */
+	DIRECTORY(null),
+
+	/**
+	 * the largest files first, i.e., the longest uploads don't end up at the tail of a parallel import (minimises the total import
+	 * time)
+	 */
+	LARGEST_FIRST(Comparator.comparingLong(ExportFileScanner.ExportFile::getSize).reversed()),
+
+	/**
+	 * the smallest files first, i.e., many objects are imported early
+	 */
+	SMALLEST_FIRST(Comparator.comparingLong(ExportFileScanner.ExportFile::getSize));
+
+	private final Comparator<ExportFileScanner.ExportFile> comparator;
+
+	ImportOrder(final Comparator<ExportFileScanner.ExportFile> comparatorArg) {
+
+		comparator = comparatorArg;
+	}
+
+	/**
+	 * @return the comparator of this order or an empty optional, if the files shouldn't be sorted
+	 */
+	public Optional<Comparator<ExportFileScanner.ExportFile>> getComparator() {
+
+		return Optional.ofNullable(comparator);
+	}
+}
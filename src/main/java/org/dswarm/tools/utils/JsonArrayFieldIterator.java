@@ -0,0 +1,164 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.utils;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.tools.DswarmToolsError;
+import org.dswarm.tools.DswarmToolsException;
+
+/**
+ * Iterates (lazily) over the (scalar) values of a top-level field of the objects of a JSON array, i.e., the array is parsed
+ * incrementally from the underlying parser - one element per {@link #next()} call. Elements without this field are skipped.
+ *
+ * @author tgaengler
+ */
+public final class JsonArrayFieldIterator implements Iterator<String> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(JsonArrayFieldIterator.class);
+
+	private final JsonParser parser;
+	private final String fieldName;
+
+	private String nextValue;
+	private boolean finished = false;
+	private boolean inArray = false;
+
+	public JsonArrayFieldIterator(final JsonParser parserArg, final String fieldNameArg) {
+
+		parser = parserArg;
+		fieldName = fieldNameArg;
+	}
+
+	@Override
+	public boolean hasNext() {
+
+		if (nextValue != null) {
+
+			return true;
+		}
+
+		if (finished) {
+
+			return false;
+		}
+
+		try {
+
+			nextValue = readNextValue();
+		} catch (final IOException e) {
+
+			final String message = String.format("something went wrong, while trying to read field '%s' of the next array element", fieldName);
+
+			LOG.error(message, e);
+
+			throw DswarmToolsError.wrap(new DswarmToolsException(message, e));
+		}
+
+		finished = nextValue == null;
+
+		return !finished;
+	}
+
+	@Override
+	public String next() {
+
+		if (!hasNext()) {
+
+			throw new NoSuchElementException();
+		}
+
+		final String value = nextValue;
+
+		nextValue = null;
+
+		return value;
+	}
+
+	private String readNextValue() throws IOException {
+
+		JsonToken token;
+
+		while ((token = parser.nextToken()) != null) {
+
+			switch (token) {
+
+				case START_ARRAY:
+
+					if (!inArray) {
+
+						// that's the (top-level) array itself
+						inArray = true;
+
+						continue;
+					}
+
+					parser.skipChildren();
+
+					break;
+				case START_OBJECT:
+
+					final String value = readFieldOfCurrentObject();
+
+					if (value != null) {
+
+						return value;
+					}
+
+					break;
+				case END_ARRAY:
+
+					return null;
+				default:
+
+					// scalar array elements are ignored
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * consumes the current object completely (i.e. the parser is positioned at the end of the object afterwards)
+	 */
+	private String readFieldOfCurrentObject() throws IOException {
+
+		String value = null;
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+			final String currentFieldName = parser.getCurrentName();
+			final JsonToken valueToken = parser.nextToken();
+
+			if (fieldName.equals(currentFieldName) && valueToken.isScalarValue()) {
+
+				value = parser.getText();
+			} else {
+
+				parser.skipChildren();
+			}
+		}
+
+		return value;
+	}
+}
@@ -0,0 +1,254 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.utils;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.tools.DswarmToolsStatics;
+
+/**
+ * A packed archive of export files, i.e., the export files of an object type are appended to one or a few segment files
+ * ('[OBJECT_NAME]-pack.[SEGMENT_NUMBER].seg') instead of being written as separate files. The offset index
+ * ('[OBJECT_NAME]-pack-index.json') contains identifier, export file name, segment number, offset and length of each object. It is
+ * written at the end of the export, i.e., a packed archive without index is incomplete.
+ *
+ * The archive is read via memory-mapped segments, i.e., the content of each object is an independent (read-only) slice of its
+ * segment that can be handed out to parallel workers without any further file access or synchronisation.
+ *
+ * @author tgaengler
+ */
+public final class PackedArchive {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PackedArchive.class);
+
+	private static final String SEGMENT_FILE_NAME_PATTERN = "%s-pack.%05d.seg";
+	private static final String SEGMENT_FILE_NAME_SUFFIX = ".seg";
+	private static final String INDEX_FILE_NAME_SUFFIX = "-pack-index.json";
+	private static final String FILE_IDENTIFIER = "file";
+	private static final String SEGMENT_IDENTIFIER = "segment";
+	private static final String OFFSET_IDENTIFIER = "offset";
+	private static final String LENGTH_IDENTIFIER = "length";
+
+	/**
+	 * the index entry of a packed object
+	 */
+	public static final class Entry {
+
+		private final String objectIdentifier;
+		private final String fileName;
+		private final int segment;
+		private final long offset;
+		private final int length;
+
+		Entry(final String objectIdentifierArg, final String fileNameArg, final int segmentArg, final long offsetArg, final int lengthArg) {
+
+			objectIdentifier = objectIdentifierArg;
+			fileName = fileNameArg;
+			segment = segmentArg;
+			offset = offsetArg;
+			length = lengthArg;
+		}
+
+		public String getObjectIdentifier() {
+
+			return objectIdentifier;
+		}
+
+		/**
+		 * @return the name of the export file, i.e., the file name that this object would have in an unpacked export (format and
+		 * compression are detected by this name)
+		 */
+		public String getFileName() {
+
+			return fileName;
+		}
+
+		ObjectNode toJSON() {
+
+			return DswarmToolsStatics.MAPPER.createObjectNode()
+					.put(DswarmToolsStatics.UUID_IDENTIFIER, objectIdentifier)
+					.put(FILE_IDENTIFIER, fileName)
+					.put(SEGMENT_IDENTIFIER, segment)
+					.put(OFFSET_IDENTIFIER, offset)
+					.put(LENGTH_IDENTIFIER, length);
+		}
+
+		private static Entry fromJSON(final JsonNode entryJSON) {
+
+			return new Entry(entryJSON.path(DswarmToolsStatics.UUID_IDENTIFIER).asText(),
+					entryJSON.path(FILE_IDENTIFIER).asText(),
+					entryJSON.path(SEGMENT_IDENTIFIER).asInt(),
+					entryJSON.path(OFFSET_IDENTIFIER).asLong(),
+					entryJSON.path(LENGTH_IDENTIFIER).asInt());
+		}
+	}
+
+	private final List<Entry> entries;
+	private final List<MappedByteBuffer> segments;
+
+	private PackedArchive(final List<Entry> entriesArg, final List<MappedByteBuffer> segmentsArg) {
+
+		entries = entriesArg;
+		segments = segmentsArg;
+	}
+
+	/**
+	 * Maps all segments of the packed archive of the given object type into memory (read-only). The file channels are closed
+	 * afterwards, the mappings stay valid as long as the archive is referenced.
+	 *
+	 * @param directoryName the import directory
+	 * @param objectName    the object type
+	 * @return the packed archive or an empty optional, if the given directory contains no (complete) packed archive
+	 * @throws IOException
+	 */
+	public static Optional<PackedArchive> open(final String directoryName, final String objectName) throws IOException {
+
+		final Path directory = Paths.get(directoryName);
+		final Path indexFile = getIndexFile(directory, objectName);
+
+		if (!Files.isRegularFile(indexFile)) {
+
+			return Optional.empty();
+		}
+
+		final List<Entry> entries = new ArrayList<>();
+
+		for (final JsonNode entryJSON : DswarmToolsStatics.MAPPER.readTree(indexFile.toFile())) {
+
+			entries.add(Entry.fromJSON(entryJSON));
+		}
+
+		final int segmentCount = entries.stream().mapToInt(entry -> entry.segment + 1).max().orElse(0);
+		final List<MappedByteBuffer> segments = new ArrayList<>(segmentCount);
+
+		long size = 0;
+
+		for (int segment = 0; segment < segmentCount; segment++) {
+
+			try (final FileChannel segmentChannel = FileChannel.open(getSegmentFile(directory, objectName, segment), StandardOpenOption.READ)) {
+
+				segments.add(segmentChannel.map(FileChannel.MapMode.READ_ONLY, 0, segmentChannel.size()));
+
+				size += segmentChannel.size();
+			}
+		}
+
+		LOG.info("opened packed {} archive with '{}' objects in '{}' segments ('{}' bytes) from '{}'", objectName, entries.size(), segmentCount, size, directory);
+
+		return Optional.of(new PackedArchive(Collections.unmodifiableList(entries), segments));
+	}
+
+	/**
+	 * @return the index entries (in the order of the export)
+	 */
+	public List<Entry> getEntries() {
+
+		return entries;
+	}
+
+	/**
+	 * @param entry an index entry of this archive
+	 * @return the content of the given object as independent (read-only) slice of its (memory-mapped) segment, i.e., reading the slice
+	 * doesn't affect any other slice
+	 */
+	public ByteBuffer slice(final Entry entry) {
+
+		// note: the casts keep the (Java 8) method signatures, if this is compiled with a newer JDK
+		final ByteBuffer slice = ((ByteBuffer) segments.get(entry.segment)).duplicate();
+
+		((Buffer) slice).position((int) entry.offset);
+		((Buffer) slice).limit((int) entry.offset + entry.length);
+
+		return slice.slice();
+	}
+
+	/**
+	 * @param entry an index entry of this archive
+	 * @return the given object as import file
+	 */
+	public ImportFile getImportFile(final Entry entry) {
+
+		return ImportFile.of(entry.getFileName(), slice(entry));
+	}
+
+	/**
+	 * Removes the packed archive (index and segments) of the given object type from the given directory (if available).
+	 *
+	 * @param directory  the export directory
+	 * @param objectName the object type
+	 * @return true, if (a part of) a packed archive was removed
+	 * @throws IOException
+	 */
+	public static boolean delete(final Path directory, final String objectName) throws IOException {
+
+		if (!Files.isDirectory(directory)) {
+
+			return false;
+		}
+
+		boolean deleted = Files.deleteIfExists(getIndexFile(directory, objectName));
+
+		try (final DirectoryStream<Path> segmentFiles = Files.newDirectoryStream(directory, file -> isSegmentFile(file, objectName))) {
+
+			for (final Path segmentFile : segmentFiles) {
+
+				Files.delete(segmentFile);
+
+				deleted = true;
+			}
+		}
+
+		return deleted;
+	}
+
+	static Path getSegmentFile(final Path directory, final String objectName, final int segment) {
+
+		return directory.resolve(String.format(SEGMENT_FILE_NAME_PATTERN, objectName, segment));
+	}
+
+	static Path getIndexFile(final Path directory, final String objectName) {
+
+		return directory.resolve(objectName + INDEX_FILE_NAME_SUFFIX);
+	}
+
+	/**
+	 * @return true, if the given file is a segment file of a packed archive of the given object type
+	 */
+	static boolean isSegmentFile(final Path file, final String objectName) {
+
+		final String fileName = file.getFileName().toString();
+
+		return fileName.startsWith(objectName + "-pack.") && fileName.endsWith(SEGMENT_FILE_NAME_SUFFIX);
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.dswarm.tools.DswarmToolsStatics;
+
+/**
+ * Writes a packed archive (see {@link PackedArchive}), i.e., the (already serialized and compressed) export files are appended to
+ * the current segment via a large write buffer, i.e., the file system only sees a few large sequential writes instead of a file
+ * creation per object. A new segment is started, when the current segment would exceed the maximum segment size. The appending is
+ * synchronized, i.e., the export files can be prepared by parallel writers.
+ *
+ * @author tgaengler
+ */
+public final class PackedArchiveWriter implements Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PackedArchiveWriter.class);
+
+	private static final int WRITE_BUFFER_SIZE = 8 * 1024 * 1024;
+
+	private final Path directory;
+	private final String objectName;
+	private final long maxSegmentSize;
+
+	private final List<PackedArchive.Entry> entries = new ArrayList<>();
+
+	private int segment = -1;
+	private long segmentSize = 0;
+	private long size = 0;
+	private OutputStream segmentOutputStream;
+
+	/**
+	 * Removes the packed archive of the last export of the given object type from the given directory (if available).
+	 *
+	 * @param directoryName  the export directory
+	 * @param objectName     the object type
+	 * @param maxSegmentSize the maximum size (in bytes) of a segment (a larger object gets a segment on its own)
+	 * @throws IOException
+	 */
+	public PackedArchiveWriter(final String directoryName, final String objectName, final int maxSegmentSize) throws IOException {
+
+		directory = Paths.get(directoryName);
+		this.objectName = objectName;
+		this.maxSegmentSize = maxSegmentSize;
+
+		Files.createDirectories(directory);
+
+		PackedArchive.delete(directory, objectName);
+	}
+
+	/**
+	 * appends the given export file to the archive
+	 *
+	 * @param objectIdentifier the object identifier
+	 * @param fileName         the name of the export file (format and compression will be detected by this name at import)
+	 * @param content          the content of the export file
+	 * @throws IOException
+	 */
+	public synchronized void append(final String objectIdentifier, final String fileName, final byte[] content) throws IOException {
+
+		if (segmentOutputStream == null || (segmentSize > 0 && segmentSize + content.length > maxSegmentSize)) {
+
+			startSegment();
+		}
+
+		segmentOutputStream.write(content);
+
+		entries.add(new PackedArchive.Entry(objectIdentifier, fileName, segment, segmentSize, content.length));
+
+		segmentSize += content.length;
+		size += content.length;
+	}
+
+	/**
+	 * completes the current segment and writes the index (via a temporary file), i.e., the archive is complete afterwards
+	 *
+	 * @throws IOException
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+
+		if (segmentOutputStream != null) {
+
+			segmentOutputStream.close();
+			segmentOutputStream = null;
+		}
+
+		final ArrayNode indexJSON = DswarmToolsStatics.MAPPER.createArrayNode();
+
+		entries.forEach(entry -> indexJSON.add(entry.toJSON()));
+
+		final Path indexFile = PackedArchive.getIndexFile(directory, objectName);
+		final Path temporaryIndexFile = directory.resolve("." + indexFile.getFileName() + ".tmp");
+
+		DswarmToolsStatics.MAPPER.writeValue(temporaryIndexFile.toFile(), indexJSON);
+
+		Files.move(temporaryIndexFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		LOG.info("wrote packed {} archive with '{}' objects in '{}' segments ('{}' bytes) to '{}'", objectName, entries.size(), segment + 1, size, directory);
+	}
+
+	private void startSegment() throws IOException {
+
+		if (segmentOutputStream != null) {
+
+			segmentOutputStream.close();
+		}
+
+		segment++;
+		segmentSize = 0;
+		segmentOutputStream = new BufferedOutputStream(Files.newOutputStream(PackedArchive.getSegmentFile(directory, objectName, segment)), WRITE_BUFFER_SIZE);
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses the written content block by block in parallel (with help of the given executor service). Each block is compressed
+ * as a separate gzip member; the members are written in order to the underlying stream. A concatenation of gzip members is a
+ * valid gzip stream, i.e., the result can be decompressed with any gzip implementation (incl. {@link java.util.zip.GZIPInputStream}).
+ * The number of pending (not yet written) blocks is bounded to keep the memory footprint constant.
+ *
+ * @author tgaengler
+ */
+public final class ParallelGzipOutputStream extends OutputStream {
+
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+	private final OutputStream out;
+	private final ExecutorService executorService;
+	private final int blockSize;
+	private final int maxPendingBlocks;
+
+	private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+
+	private byte[] block;
+	private int blockLength = 0;
+	private boolean blockSubmitted = false;
+	private boolean closed = false;
+
+	public ParallelGzipOutputStream(final OutputStream outArg, final ExecutorService executorServiceArg, final int blockSizeArg, final int maxPendingBlocksArg) {
+
+		out = outArg;
+		executorService = executorServiceArg;
+		blockSize = blockSizeArg;
+		maxPendingBlocks = maxPendingBlocksArg;
+		block = new byte[blockSize];
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+
+		block[blockLength++] = (byte) b;
+
+		if (blockLength == blockSize) {
+
+			submitBlock();
+		}
+	}
+
+	@Override
+	public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+
+		int currentOffset = offset;
+		int remaining = length;
+
+		while (remaining > 0) {
+
+			final int bytesToCopy = Math.min(remaining, blockSize - blockLength);
+
+			System.arraycopy(bytes, currentOffset, block, blockLength, bytesToCopy);
+
+			blockLength += bytesToCopy;
+			currentOffset += bytesToCopy;
+			remaining -= bytesToCopy;
+
+			if (blockLength == blockSize) {
+
+				submitBlock();
+			}
+		}
+	}
+
+	/**
+	 * Flushes the underlying stream only, i.e., the current (incomplete) block won't be compressed before it is full or the stream
+	 * is closed (otherwise, we would produce many tiny gzip members).
+	 */
+	@Override
+	public void flush() throws IOException {
+
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		if (closed) {
+
+			return;
+		}
+
+		closed = true;
+
+		try {
+
+			// note: an empty content results in one (empty) gzip member, i.e., in a valid gzip file
+			if (blockLength > 0 || !blockSubmitted) {
+
+				submitBlock();
+			}
+
+			while (!pendingBlocks.isEmpty()) {
+
+				writeNextCompressedBlock();
+			}
+		} finally {
+
+			while (!pendingBlocks.isEmpty()) {
+
+				pendingBlocks.poll().cancel(true);
+			}
+
+			out.close();
+		}
+	}
+
+	private void submitBlock() throws IOException {
+
+		final byte[] uncompressedBlock = block;
+		final int uncompressedBlockLength = blockLength;
+
+		pendingBlocks.add(executorService.submit(() -> compress(uncompressedBlock, uncompressedBlockLength)));
+
+		blockSubmitted = true;
+		block = new byte[blockSize];
+		blockLength = 0;
+
+		while (pendingBlocks.size() > maxPendingBlocks) {
+
+			writeNextCompressedBlock();
+		}
+	}
+
+	private void writeNextCompressedBlock() throws IOException {
+
+		final Future<byte[]> compressedBlockFuture = pendingBlocks.poll();
+
+		try {
+
+			out.write(compressedBlockFuture.get());
+		} catch (final InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+
+			throw new InterruptedIOException("interrupted while waiting for block compression");
+		} catch (final ExecutionException e) {
+
+			throw new IOException("couldn't compress block", e.getCause());
+		}
+	}
+
+	private static byte[] compress(final byte[] uncompressedBlock, final int uncompressedBlockLength) throws IOException {
+
+		final ByteArrayOutputStream compressedBlock = new ByteArrayOutputStream(uncompressedBlockLength / 4 + 64);
+
+		try (final GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressedBlock, GZIP_BUFFER_SIZE)) {
+
+			gzipOutputStream.write(uncompressedBlock, 0, uncompressedBlockLength);
+		}
+
+		return compressedBlock.toByteArray();
+	}
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.io.CountingOutputStream;
+
+/**
+ * The record offsets index of an NDJSON export file ('[EXPORT_FILE_NAME].offsets'), i.e., the byte offset of the first byte of each
+ * record (line) in the (uncompressed) content as 8-byte big-endian value. The offset of record i is stored at position i * 8, i.e.,
+ * a record (or a range of records) can be located without reading the index or the export file completely. The length of a record
+ * is the difference to the offset of the next record (or to the content size for the last record).
+ *
+ * @author tgaengler
+ */
+public final class RecordOffsets {
+
+	private static final String FILE_EXTENSION = ".offsets";
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Writes the record offsets index of an NDJSON export file while the export file is written, i.e., the offset of a record is the
+	 * number of bytes that the generator already wrote into the (uncompressed) content stream plus the number of bytes that it still
+	 * buffers, when the record starts.
+	 */
+	public static final class Writer implements Closeable {
+
+		private final CountingOutputStream contentOutputStream;
+		private final DataOutputStream indexOutputStream;
+
+		/**
+		 * @param exportFile             the (NDJSON) export file (the index is written next to it)
+		 * @param contentOutputStreamArg the (uncompressed) content stream under the generator of the export file
+		 * @throws IOException
+		 */
+		public Writer(final Path exportFile, final CountingOutputStream contentOutputStreamArg) throws IOException {
+
+			contentOutputStream = contentOutputStreamArg;
+			indexOutputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(getFile(exportFile)), BUFFER_SIZE));
+		}
+
+		/**
+		 * @param generator the generator of the export file (positioned at the start of a record)
+		 * @throws IOException
+		 */
+		public void writeRecordStart(final JsonGenerator generator) throws IOException {
+
+			final int bufferedBytes = generator.getOutputBuffered();
+
+			if (bufferedBytes < 0) {
+
+				throw new IOException("cannot determine the record offsets - the generator doesn't expose its buffered output");
+			}
+
+			indexOutputStream.writeLong(contentOutputStream.getCount() + bufferedBytes);
+		}
+
+		@Override
+		public void close() throws IOException {
+
+			indexOutputStream.close();
+		}
+	}
+
+	/**
+	 * @param exportFile the (NDJSON) export file
+	 * @return the record offsets index file of the given export file
+	 */
+	public static Path getFile(final Path exportFile) {
+
+		return exportFile.resolveSibling(exportFile.getFileName() + FILE_EXTENSION);
+	}
+
+	/**
+	 * Scans the (decompressed) content of the given NDJSON export file for record separators (line breaks) and writes the record
+	 * offsets index of this file (i.e. for an export file that wasn't written by this export, see {@link Writer}).
+	 *
+	 * @param exportFile the (NDJSON) export file
+	 * @return the number of records
+	 * @throws IOException
+	 */
+	public static long write(final Path exportFile) throws IOException {
+
+		long recordCount = 0;
+
+		try (final InputStream inputStream = DswarmToolUtils.newDecompressingInputStream(exportFile);
+		     final DataOutputStream indexOutputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(getFile(exportFile)), BUFFER_SIZE))) {
+
+			final byte[] buffer = new byte[BUFFER_SIZE];
+
+			long position = 0;
+			boolean recordStart = true;
+			int bytesRead;
+
+			while ((bytesRead = inputStream.read(buffer)) != -1) {
+
+				for (int i = 0; i < bytesRead; i++) {
+
+					if (recordStart) {
+
+						indexOutputStream.writeLong(position + i);
+
+						recordCount++;
+						recordStart = false;
+					}
+
+					if (buffer[i] == '\n') {
+
+						recordStart = true;
+					}
+				}
+
+				position += bytesRead;
+			}
+		}
+
+		return recordCount;
+	}
+}
@@ -15,78 +15,172 @@
  */
 package org.dswarm.tools.utils;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import rx.Scheduler;
 import rx.schedulers.Schedulers;
 
 /**
+ * The thread pools (and their Rx schedulers) of the tools, i.e.,
+ *
+ * - bounded I/O pools per object type for HTTP work ('dswarm-[OBJECT_NAME]-exporter-N' and 'dswarm-[OBJECT_NAME]-importer-N'; response
+ *   handling incl. reading/streaming the response entities) and for file work ('dswarm-[OBJECT_NAME]-writer-N' and
+ *   'dswarm-[OBJECT_NAME]-reader-N'; writing export files and reading import files),
+ * - one CPU pool sized to the number of available cores for JSON work ('dswarm-json-N'; parsing, transforming and serializing
+ *   object descriptions) and
+ * - one CPU pool sized to the number of available cores for compression work ('dswarm-compressor-N').
+ *
+ * Tasks beyond the pool size are queued. Idle threads are released after a keep-alive time. The pools are registered thread-safe (i.e.
+ * each pool is created once) and can be shut down at the end of a tool execution.
+ *
  * @author tgaengler
  */
 public final class RxUtils {
 
-	private static final Map<String, ExecutorService> executorServices = new HashMap<>();
-	private static final Map<String, Scheduler> schedulers = new HashMap<>();
+	private static final Logger LOG = LoggerFactory.getLogger(RxUtils.class);
+
+	private static final Map<String, ExecutorService> executorServices = new ConcurrentHashMap<>();
+	private static final Map<String, Scheduler> schedulers = new ConcurrentHashMap<>();
 
 	private static final String WRITER_PATTERN = "dswarm-%s-writer-";
 	private static final String READER_PATTERN = "dswarm-%s-reader-";
 	private static final String IMPORTER_PATTERN = "dswarm-%s-importer-";
 	private static final String EXPORTER_PATTERN = "dswarm-%s-exporter-";
 
+	private static final String JSON_PATTERN = "dswarm-json-";
+	private static final String COMPRESSOR_PATTERN = "dswarm-compressor-";
+
 	private static final String PATTERN_POSTFIX = "%d";
 
+	private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * HTTP threads mostly wait for the network (e.g. while streaming a response entity into an export file)
+	 */
+	private static final int HTTP_POOL_SIZE = Math.max(16, 4 * CORES);
+	private static final int FILE_POOL_SIZE = Math.max(8, 2 * CORES);
+	private static final int CPU_POOL_SIZE = CORES;
+
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	private static volatile boolean shutdown = false;
+
+	/**
+	 * @return the (file I/O) scheduler for writing export files of the given object type
+	 */
 	public static Scheduler getObjectWriterScheduler(final String name) {
 
 		final String dswarmObjectWriterThreadNamingPattern = String.format(WRITER_PATTERN, name);
-		
-		return getOrCreateScheduler(dswarmObjectWriterThreadNamingPattern + PATTERN_POSTFIX);
+
+		return getOrCreateScheduler(dswarmObjectWriterThreadNamingPattern + PATTERN_POSTFIX, FILE_POOL_SIZE);
 	}
 
+	/**
+	 * @return the (file I/O) scheduler for reading import files of the given object type
+	 */
 	public static Scheduler getObjectReaderScheduler(final String name) {
 
-		final String dswarmObjectWriterThreadNamingPattern = String.format(READER_PATTERN, name);
+		final String dswarmObjectReaderThreadNamingPattern = String.format(READER_PATTERN, name);
 
-		return getOrCreateScheduler(dswarmObjectWriterThreadNamingPattern + PATTERN_POSTFIX);
+		return getOrCreateScheduler(dswarmObjectReaderThreadNamingPattern + PATTERN_POSTFIX, FILE_POOL_SIZE);
 	}
 
+	/**
+	 * @return the (HTTP I/O) scheduler for handling the responses of import requests of the given object type
+	 */
 	public static Scheduler getObjectImporterScheduler(final String name) {
 
-		final String dswarmObjectWriterThreadNamingPattern = String.format(IMPORTER_PATTERN, name);
+		final String dswarmObjectImporterThreadNamingPattern = String.format(IMPORTER_PATTERN, name);
 
-		return getOrCreateScheduler(dswarmObjectWriterThreadNamingPattern + PATTERN_POSTFIX);
+		return getOrCreateScheduler(dswarmObjectImporterThreadNamingPattern + PATTERN_POSTFIX, HTTP_POOL_SIZE);
 	}
 
+	/**
+	 * @return the (HTTP I/O) scheduler for handling the responses of export (retrieval) requests of the given object type
+	 */
 	public static Scheduler getObjectExporterScheduler(final String name) {
 
-		final String dswarmObjectWriterThreadNamingPattern = String.format(EXPORTER_PATTERN, name);
+		final String dswarmObjectExporterThreadNamingPattern = String.format(EXPORTER_PATTERN, name);
 
-		return getOrCreateScheduler(dswarmObjectWriterThreadNamingPattern + PATTERN_POSTFIX);
+		return getOrCreateScheduler(dswarmObjectExporterThreadNamingPattern + PATTERN_POSTFIX, HTTP_POOL_SIZE);
 	}
 
-	public static ExecutorService getObjectImporterExecutorService(final String name) {
+	/**
+	 * @return the (CPU) scheduler for JSON work (parsing, transforming and serializing object descriptions), sized to the number of
+	 * available cores
+	 */
+	public static Scheduler getJsonScheduler() {
+
+		return getOrCreateScheduler(JSON_PATTERN + PATTERN_POSTFIX, CPU_POOL_SIZE);
+	}
 
-		final String dswarmObjectWriterThreadNamingPattern = String.format(IMPORTER_PATTERN, name);
+	/**
+	 * @return a (fixed-size) executor service for compression work, sized to the number of available cores
+	 */
+	public static ExecutorService getCompressorExecutorService() {
 
-		return createOrGetExecutorService(dswarmObjectWriterThreadNamingPattern + PATTERN_POSTFIX);
+		return createOrGetExecutorService(COMPRESSOR_PATTERN + PATTERN_POSTFIX, CPU_POOL_SIZE);
 	}
-	
-	public static Scheduler getOrCreateScheduler(final String name) {
-		
-		return schedulers.computeIfAbsent(name, name1 -> {
 
-			final ExecutorService executorService = createOrGetExecutorService(name1);
+	/**
+	 * Shuts down all pools, i.e., queued tasks are still executed, but no new pools can be registered. Threads of pools that are still
+	 * busy terminate, when their tasks are done.
+	 */
+	public static synchronized void shutdown() {
 
-			return Schedulers.from(executorService);
-		});
+		shutdown = true;
+
+		executorServices.forEach((name, executorService) -> executorService.shutdown());
+
+		LOG.debug("shut down '{}' thread pools", executorServices.size());
 	}
 
-	private static ExecutorService createOrGetExecutorService(final String name) {
+	private static Scheduler getOrCreateScheduler(final String name, final int poolSize) {
+
+		return schedulers.computeIfAbsent(name, name1 -> Schedulers.from(createOrGetExecutorService(name1, poolSize)));
+	}
+
+	private static ExecutorService createOrGetExecutorService(final String name, final int poolSize) {
+
+		final ExecutorService executorService = executorServices.get(name);
+
+		if (executorService != null) {
+
+			return executorService;
+		}
+
+		// registration is synchronised with shutdown, i.e., no pool is created after shutdown
+		synchronized (RxUtils.class) {
+
+			if (shutdown) {
+
+				throw new IllegalStateException(String.format("cannot create thread pool '%s' - thread pools are already shut down", name));
+			}
+
+			return executorServices.computeIfAbsent(name, name1 -> createBoundedExecutorService(name1, poolSize));
+		}
+	}
+
+	/**
+	 * @return a thread pool with at most the given number of threads (tasks beyond are queued; idle threads are released)
+	 */
+	private static ExecutorService createBoundedExecutorService(final String namingPattern, final int poolSize) {
+
+		final ThreadPoolExecutor executorService = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), new BasicThreadFactory.Builder().daemon(false).namingPattern(namingPattern).build());
+
+		executorService.allowCoreThreadTimeOut(true);
+
+		LOG.debug("created thread pool '{}' with at most '{}' threads", namingPattern, poolSize);
 
-		return executorServices.computeIfAbsent(name, name1 -> Executors.newCachedThreadPool(
-						new BasicThreadFactory.Builder().daemon(false).namingPattern(name1).build()));
+		return executorService;
 	}
 }
@@ -0,0 +1,146 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.apiclients;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import javaslang.Tuple;
+import javaslang.Tuple2;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.dswarm.tools.DswarmToolsConfig;
+import org.dswarm.tools.DswarmToolsStatics;
+import org.dswarm.tools.utils.RxUtils;
+
+/**
+ * Retrieves the content of a data model from a stub d:swarm graph extension ('/gdm/get' with support for record windows) with and
+ * without paging.
+ *
+ * @author tgaengler
+ */
+public class DswarmGraphExtensionAPIClientTest {
+
+	private static final String DATA_MODEL_ID = "1";
+	private static final String RECORD_CLASS_URI = "http://www.openarchives.org/OAI/2.0/recordType";
+	private static final int RECORD_COUNT = 20;
+
+	private static final List<String> RECORDS = PagedContentInputStreamTest.createRecords(RECORD_COUNT);
+	private static final AtomicInteger READ_REQUESTS = new AtomicInteger(0);
+
+	private static HttpServer graphExtension;
+
+	@BeforeClass
+	public static void startGraphExtension() throws IOException {
+
+		graphExtension = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		graphExtension.createContext("/gdm/get", DswarmGraphExtensionAPIClientTest::readDataModelContent);
+		graphExtension.start();
+	}
+
+	@AfterClass
+	public static void stopGraphExtension() {
+
+		graphExtension.stop(0);
+
+		AbstractAPIClient.shutdown();
+		RxUtils.shutdown();
+	}
+
+	@Test
+	public void testPagedContentEqualsUnpagedContent() throws IOException {
+
+		final byte[] unpagedContent = fetchDataModelContent(0);
+
+		Assert.assertArrayEquals(PagedContentInputStreamTest.toJSONArray(RECORDS).getBytes(StandardCharsets.UTF_8), unpagedContent);
+
+		// short last page, exact multiple of the page size and a single (short) page
+		for (final int pageSize : new int[]{7, 5, RECORD_COUNT + 1}) {
+
+			READ_REQUESTS.set(0);
+
+			Assert.assertArrayEquals(String.format("page size = '%s'", pageSize), unpagedContent, fetchDataModelContent(pageSize));
+			Assert.assertEquals(String.format("page size = '%s'", pageSize), RECORD_COUNT / pageSize + 1, READ_REQUESTS.get());
+		}
+	}
+
+	private byte[] fetchDataModelContent(final int pageSize) throws IOException {
+
+		final DswarmToolsConfig config = new DswarmToolsConfig(Collections.singletonMap(DswarmToolsStatics.EXPORT_PAGE_SIZE_PARAMETER, String.valueOf(pageSize)));
+		final String graphExtensionBaseURI = String.format("http://localhost:%s", graphExtension.getAddress().getPort());
+
+		final Tuple2<String, InputStream> dataModelContentStream = new DswarmGraphExtensionAPIClient(graphExtensionBaseURI, config)
+				.fetchDataModelContentStream(Tuple.of(DATA_MODEL_ID, RECORD_CLASS_URI))
+				.toBlocking()
+				.single();
+
+		try (final InputStream contentStream = dataModelContentStream._2) {
+
+			return ByteStreams.toByteArray(contentStream);
+		}
+	}
+
+	/**
+	 * serves the complete content or (if offset and at most are given) the requested record window of the content
+	 */
+	private static void readDataModelContent(final HttpExchange exchange) throws IOException {
+
+		READ_REQUESTS.incrementAndGet();
+
+		final JsonNode requestJSON;
+
+		try (final InputStream requestBody = exchange.getRequestBody()) {
+
+			requestJSON = DswarmToolsStatics.MAPPER.readTree(requestBody);
+		}
+
+		final List<String> records;
+
+		if (requestJSON.has(DswarmToolsStatics.OFFSET_IDENTIFIER) && requestJSON.has(DswarmToolsStatics.AT_MOST_IDENTIFIER)) {
+
+			final int start = Math.min(requestJSON.get(DswarmToolsStatics.OFFSET_IDENTIFIER).asInt(), RECORDS.size());
+			final int end = Math.min(start + requestJSON.get(DswarmToolsStatics.AT_MOST_IDENTIFIER).asInt(), RECORDS.size());
+
+			records = RECORDS.subList(start, end);
+		} else {
+
+			records = RECORDS;
+		}
+
+		final byte[] content = PagedContentInputStreamTest.toJSONArray(records).getBytes(StandardCharsets.UTF_8);
+
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, content.length);
+
+		try (final OutputStream responseBody = exchange.getResponseBody()) {
+
+			responseBody.write(content);
+		}
+	}
+}
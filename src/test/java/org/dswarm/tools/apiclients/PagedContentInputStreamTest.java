@@ -0,0 +1,167 @@
+/**
+ * Copyright © 2016 – 2017 SLUB Dresden (<code@dswarm.org>)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dswarm.tools.apiclients;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author tgaengler
+ */
+public class PagedContentInputStreamTest {
+
+	private static final String DATA_MODEL_ID = "1";
+
+	@Test
+	public void testExactMultipleOfPageSize() throws IOException {
+
+		final List<String> records = createRecords(6);
+		final AtomicInteger pageRequests = new AtomicInteger(0);
+
+		final byte[] content = readAll(new PagedContentInputStream(DATA_MODEL_ID, 3, countingPageReader(records, pageRequests)));
+
+		Assert.assertEquals(toJSONArray(records), new String(content, StandardCharsets.UTF_8));
+		// the last (full) page is followed by an empty one
+		Assert.assertEquals(3, pageRequests.get());
+	}
+
+	@Test
+	public void testShortLastPage() throws IOException {
+
+		final List<String> records = createRecords(5);
+		final AtomicInteger pageRequests = new AtomicInteger(0);
+
+		final byte[] content = readAll(new PagedContentInputStream(DATA_MODEL_ID, 3, countingPageReader(records, pageRequests)));
+
+		Assert.assertEquals(toJSONArray(records), new String(content, StandardCharsets.UTF_8));
+		Assert.assertEquals(2, pageRequests.get());
+	}
+
+	@Test
+	public void testEmptyDataModel() throws IOException {
+
+		final AtomicInteger pageRequests = new AtomicInteger(0);
+
+		final byte[] content = readAll(new PagedContentInputStream(DATA_MODEL_ID, 3, countingPageReader(Collections.emptyList(), pageRequests)));
+
+		Assert.assertEquals("[]", new String(content, StandardCharsets.UTF_8));
+		Assert.assertEquals(1, pageRequests.get());
+	}
+
+	@Test
+	public void testSingleByteReads() throws IOException {
+
+		final List<String> records = createRecords(7);
+
+		try (final InputStream inputStream = new PagedContentInputStream(DATA_MODEL_ID, 3, pageReader(records))) {
+
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+			int b;
+
+			while ((b = inputStream.read()) != -1) {
+
+				outputStream.write(b);
+			}
+
+			Assert.assertEquals(toJSONArray(records), new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * the server ignores the record window and returns the complete content
+	 */
+	@Test(expected = IOException.class)
+	public void testPageWithMoreRecordsThanPageSize() throws IOException {
+
+		final List<String> records = createRecords(5);
+
+		readAll(new PagedContentInputStream(DATA_MODEL_ID, 3, (offset, pageSize) -> toJSONArray(records).getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * the server ignores the offset, i.e., it returns the first page again and again
+	 */
+	@Test(expected = IOException.class)
+	public void testSamePageTwice() throws IOException {
+
+		final List<String> records = createRecords(5);
+		final PagedContentInputStream.PageReader pageReader = pageReader(records);
+
+		readAll(new PagedContentInputStream(DATA_MODEL_ID, 3, (offset, pageSize) -> pageReader.readPage(0, pageSize)));
+	}
+
+	static List<String> createRecords(final int count) {
+
+		final List<String> records = new ArrayList<>();
+
+		for (int i = 1; i <= count; i++) {
+
+			records.add(String.format("{\"http://data.slub-dresden.de/records/%1$s\":[{\"http://purl.org/dc/terms/title\":\"Überschrift %1$s\"}]}", i));
+		}
+
+		return records;
+	}
+
+	static String toJSONArray(final List<String> records) {
+
+		return "[" + String.join(",", records) + "]";
+	}
+
+	/**
+	 * @return a page reader that serves the requested record window of the given records
+	 */
+	static PagedContentInputStream.PageReader pageReader(final List<String> records) {
+
+		return (offset, pageSize) -> {
+
+			final int start = (int) Math.min(offset, records.size());
+			final int end = Math.min(start + pageSize, records.size());
+
+			return toJSONArray(records.subList(start, end)).getBytes(StandardCharsets.UTF_8);
+		};
+	}
+
+	private static PagedContentInputStream.PageReader countingPageReader(final List<String> records, final AtomicInteger pageRequests) {
+
+		final PagedContentInputStream.PageReader pageReader = pageReader(records);
+
+		return (offset, pageSize) -> {
+
+			pageRequests.incrementAndGet();
+
+			return pageReader.readPage(offset, pageSize);
+		};
+	}
+
+	private static byte[] readAll(final InputStream inputStream) throws IOException {
+
+		try (final InputStream contentStream = inputStream) {
+
+			return ByteStreams.toByteArray(contentStream);
+		}
+	}
+}